@@ -0,0 +1,96 @@
+package org.wild.myblog.jmh;
+
+import org.wild.myblog.model.Article;
+import org.wild.myblog.model.ArticleAuthor;
+import org.wild.myblog.model.Author;
+import org.wild.myblog.model.Category;
+import org.wild.myblog.model.Image;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Graphes d'entités déterministes (graine fixe) pour les benchmarks : chaque article a une catégorie,
+ * 1 à 3 auteurs, 0 à 4 images et un contenu de 500 à 8 000 caractères, comme sur le blog en production.
+ */
+final class ArticleFixtures {
+
+    private static final String[] WORDS = {
+            "développement", "java", "spring", "requête", "base", "données", "performance", "mémoire",
+            "article", "blog", "serveur", "réponse", "cache", "index", "recherche", "été", "équipe", "projet"
+    };
+
+    private ArticleFixtures() {
+    }
+
+    static List<Article> articles(int count) {
+        Random random = new Random(42);
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, count / 20); i++) {
+            Category category = new Category();
+            category.setId((long) i + 1);
+            category.setName("Catégorie " + i);
+            category.setArticles(new ArrayList<>());
+            categories.add(category);
+        }
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < Math.max(3, count / 5); i++) {
+            Author author = new Author();
+            author.setId((long) i + 1);
+            author.setFirstname("Prénom" + i);
+            author.setLastname("Nom" + i);
+            author.setArticleAuthors(new ArrayList<>());
+            authors.add(author);
+        }
+
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<Article> articles = new ArrayList<>(count);
+        long imageId = 1;
+        long articleAuthorId = 1;
+        for (int i = 0; i < count; i++) {
+            Article article = new Article();
+            article.setId((long) i + 1);
+            article.setTitle("Article " + i + " " + WORDS[random.nextInt(WORDS.length)]);
+            article.setContent(text(random, 500 + random.nextInt(7500)));
+            article.setCreatedAt(now.minusMinutes(i));
+            article.setUpdatedAt(now.minusMinutes(i / 2));
+
+            Category category = categories.get(random.nextInt(categories.size()));
+            article.setCategory(category);
+            category.getArticles().add(article);
+
+            List<Image> images = new ArrayList<>();
+            for (int j = random.nextInt(5); j > 0; j--) {
+                Image image = new Image();
+                image.setId(imageId++);
+                image.setUrl("https://cdn.example.org/images/" + image.getId() + ".webp");
+                images.add(image);
+            }
+            article.setImages(images);
+
+            List<ArticleAuthor> articleAuthors = new ArrayList<>();
+            for (int j = 1 + random.nextInt(3); j > 0; j--) {
+                ArticleAuthor articleAuthor = new ArticleAuthor();
+                articleAuthor.setId(articleAuthorId++);
+                articleAuthor.setArticle(article);
+                articleAuthor.setAuthor(authors.get(random.nextInt(authors.size())));
+                articleAuthor.setContribution("Rédaction");
+                articleAuthor.getAuthor().getArticleAuthors().add(articleAuthor);
+                articleAuthors.add(articleAuthor);
+            }
+            article.setArticleAuthors(articleAuthors);
+            articles.add(article);
+        }
+        return articles;
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(12) == 0 ? ". " : " ");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package org.wild.myblog.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.wild.myblog.dto.ArticleDTO;
+import org.wild.myblog.mapper.ArticleMapper;
+import org.wild.myblog.model.Article;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArticleMapper.toDTO (dont les AuthorDTO imbriqués) sur une page d'articles, comme GET /articles.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArticleMappingBenchmark {
+
+    @Param({"1", "20", "100", "1000"})
+    private int articleCount;
+
+    private List<Article> articles;
+
+    @Setup
+    public void setUp() {
+        articles = ArticleFixtures.articles(articleCount);
+    }
+
+    @Benchmark
+    public List<ArticleDTO> mapArticles() {
+        return articles.stream().map(ArticleMapper::toDTO).toList();
+    }
+}
@@ -0,0 +1,52 @@
+package org.wild.myblog.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.wild.myblog.dto.ArticleDTO;
+import org.wild.myblog.dto.CursorPageDTO;
+import org.wild.myblog.mapper.ArticleMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation Jackson d'une liste d'ArticleDTO, avec l'ObjectMapper tel que Spring Boot le configure
+ * (module java.time, dates ISO). La sortie est jetée au fil de l'eau, comme sur une réponse HTTP.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArticleSerializationBenchmark {
+
+    @Param({"1", "20", "100", "1000"})
+    private int articleCount;
+
+    private List<ArticleDTO> articleDTOs;
+    private ObjectWriter listWriter;
+    private ObjectWriter pageWriter;
+
+    @Setup
+    public void setUp() {
+        articleDTOs = ArticleFixtures.articles(articleCount).stream().map(ArticleMapper::toDTO).toList();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, ArticleDTO.class));
+        pageWriter = objectMapper.writerFor(CursorPageDTO.class);
+    }
+
+    @Benchmark
+    public void serializeList() throws IOException {
+        listWriter.writeValue(OutputStream.nullOutputStream(), articleDTOs);
+    }
+
+    @Benchmark
+    public void serializeCursorPage() throws IOException {
+        pageWriter.writeValue(OutputStream.nullOutputStream(), new CursorPageDTO<>(articleDTOs, articleCount, "cursor"));
+    }
+}
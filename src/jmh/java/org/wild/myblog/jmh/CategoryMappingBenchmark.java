@@ -0,0 +1,40 @@
+package org.wild.myblog.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.wild.myblog.dto.CategoryDTO;
+import org.wild.myblog.mapper.CategoryMapper;
+import org.wild.myblog.model.Article;
+import org.wild.myblog.model.Category;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * CategoryMapper.toDTO sur toutes les catégories avec leur nombre d'articles, comme GET /categories.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CategoryMappingBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int articleCount;
+
+    private Map<Category, Long> categories;
+
+    @Setup
+    public void setUp() {
+        categories = ArticleFixtures.articles(articleCount).stream()
+                .collect(Collectors.groupingBy(Article::getCategory, Collectors.counting()));
+    }
+
+    @Benchmark
+    public List<CategoryDTO> mapCategories() {
+        return categories.entrySet().stream().map(entry -> CategoryMapper.toDTO(entry.getKey(), entry.getValue())).toList();
+    }
+}
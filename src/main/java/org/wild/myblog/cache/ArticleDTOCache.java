@@ -0,0 +1,146 @@
+package org.wild.myblog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import org.wild.myblog.dto.ArticleDTO;
+import org.wild.myblog.dto.AuthorDTO;
+import org.wild.myblog.dto.CacheStatsDTO;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.event.ArticleReferencesChangedEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache des ArticleDTO complets servis par GET /articles/{id}, avec leur version HTTP.
+ *
+ * Borné en octets (taille estimée des chaînes de chaque DTO) plutôt qu'en nombre d'entrées, car un article
+ * peut peser quelques octets comme plusieurs centaines de Ko. L'éviction est celle de Caffeine (W-TinyLFU),
+ * chaque entrée expire après le TTL configuré, et toute écriture touchant un article retire son entrée.
+ */
+@Component
+public class ArticleDTOCache {
+
+    // Objet, en-têtes et références, hors chaînes
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final Cache<Long, CachedArticle> cache;
+    private final Map<Long, CompletableFuture<CachedArticle>> loadsInFlight = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ArticleDTOCache(
+            @Value("${blog.article-cache.maximum-size:64MB}") DataSize maximumSize,
+            @Value("${blog.article-cache.ttl:PT10M}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((Long id, CachedArticle cachedArticle) -> estimateSize(cachedArticle.article()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public CachedArticle getIfPresent(Long articleId) {
+        return cache.getIfPresent(articleId);
+    }
+
+    /**
+     * Renvoie l'entrée en cache ou la construit avec le loader ; un loader qui renvoie null (article inexistant)
+     * n'est pas mis en cache. Les requêtes concurrentes sur le même article attendent un chargement unique.
+     *
+     * Le loader n'est pas passé à Cache.get() : Caffeine l'exécuterait dans ConcurrentHashMap.compute(), sous
+     * un verrou synchronized, ce qui épinglerait un thread virtuel sur son porteur pendant toute la requête SQL.
+     */
+    public CachedArticle get(Long articleId, Function<Long, CachedArticle> loader) {
+        CachedArticle cachedArticle = cache.getIfPresent(articleId);
+        if (cachedArticle != null) {
+            return cachedArticle;
+        }
+
+        CompletableFuture<CachedArticle> loading = new CompletableFuture<>();
+        CompletableFuture<CachedArticle> alreadyLoading = loadsInFlight.putIfAbsent(articleId, loading);
+        if (alreadyLoading != null) {
+            try {
+                return alreadyLoading.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            long generation = invalidations.get();
+            CachedArticle loadedArticle = loader.apply(articleId);
+            // Une invalidation pendant le chargement peut signifier que ce qu'on vient de lire est déjà périmé
+            if (loadedArticle != null && invalidations.get() == generation) {
+                cache.put(articleId, loadedArticle);
+            }
+            loading.complete(loadedArticle);
+            return loadedArticle;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadsInFlight.remove(articleId, loading);
+        }
+    }
+
+    public void invalidate(Long articleId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(articleId);
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        CacheStatsDTO statsDTO = new CacheStatsDTO();
+        statsDTO.setHits(stats.hitCount());
+        statsDTO.setMisses(stats.missCount());
+        statsDTO.setEvictions(stats.evictionCount());
+        statsDTO.setHitRate(stats.hitRate());
+        statsDTO.setEntries(cache.estimatedSize());
+        cache.policy().eviction().ifPresent(eviction -> statsDTO.setWeightBytes(eviction.weightedSize().orElse(0L)));
+        return statsDTO;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        invalidate(event.article().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleReferencesChanged(ArticleReferencesChangedEvent event) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(event.articleIds());
+    }
+
+    private static int estimateSize(ArticleDTO articleDTO) {
+        long size = ENTRY_OVERHEAD_BYTES
+                + sizeOf(articleDTO.getTitle())
+                + sizeOf(articleDTO.getContent())
+                + sizeOf(articleDTO.getCategoryName());
+        if (articleDTO.getImageUrls() != null) {
+            for (String imageUrl : articleDTO.getImageUrls()) {
+                size += 16 + sizeOf(imageUrl);
+            }
+        }
+        if (articleDTO.getAuthors() != null) {
+            for (AuthorDTO authorDTO : articleDTO.getAuthors()) {
+                size += 48 + sizeOf(authorDTO.getFirstname()) + sizeOf(authorDTO.getLastname());
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    // Estimation prudente à deux octets par caractère (les chaînes Latin-1 en occupent moitié moins)
+    private static long sizeOf(String value) {
+        return value == null ? 0 : 40L + 2L * value.length();
+    }
+}
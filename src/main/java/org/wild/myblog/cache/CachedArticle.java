@@ -0,0 +1,11 @@
+package org.wild.myblog.cache;
+
+import org.wild.myblog.dto.ArticleDTO;
+import org.wild.myblog.web.ResourceVersion;
+
+/**
+ * Le DTO et sa version, calculée à partir des mêmes entités que le DTO : une entrée du cache peut
+ * répondre à un GET conditionnel sans aucune requête.
+ */
+public record CachedArticle(ArticleDTO article, ResourceVersion version) {
+}
@@ -0,0 +1,41 @@
+package org.wild.myblog.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.wild.myblog.web.ContentCoding;
+import org.wild.myblog.web.ResourceVersion;
+
+/**
+ * Corps JSON d'une réponse, encodé une fois pour une version de la ressource, avec sa variante gzip
+ * (null pour les petits corps, que la compression n'allège pas).
+ */
+public record EncodedResponse(ResourceVersion version, byte[] json, byte[] gzipped) {
+
+    /**
+     * ETag de la représentation servie à ce client : les clients gzip ont leur propre ETag, qu'ils reçoivent
+     * le corps compressé ou non, pour qu'un cache partagé ne mélange jamais les deux variantes.
+     */
+    public static String etagFor(ResourceVersion version, boolean gzip) {
+        return gzip ? version.etag().substring(0, version.etag().length() - 1) + "-gzip\"" : version.etag();
+    }
+
+    public int size() {
+        return json.length + (gzipped != null ? gzipped.length : 0);
+    }
+
+    /**
+     * Réponse 200 écrite telle quelle par le convertisseur de tableaux d'octets, sans passer par Jackson.
+     */
+    public ResponseEntity<byte[]> toResponse(boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(etagFor(version, gzip))
+                .lastModified(version.lastModified());
+        if (gzip && gzipped != null) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, ContentCoding.GZIP).body(gzipped);
+        }
+        return response.body(json);
+    }
+}
@@ -0,0 +1,137 @@
+package org.wild.myblog.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.event.ArticleReferencesChangedEvent;
+import org.wild.myblog.web.ContentCoding;
+import org.wild.myblog.web.ResourceVersion;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Réponses JSON déjà encodées des lectures les plus fréquentes : GET /articles/{id}, /articles/latest,
+ * /categories et /authors/{id}.
+ *
+ * Une entrée n'est servie que pour la version avec laquelle elle a été encodée : le contrôleur lit d'abord la
+ * version courante (en mémoire ou par sa requête agrégée), et une entrée d'une autre version est ré-encodée.
+ * Une lecture concurrente d'une écriture ne peut donc pas remettre en service un corps périmé. Les écritures
+ * retirent en plus les entrées concernées, pour ne pas garder en mémoire des corps qui ne serviront plus.
+ *
+ * Borné en octets (corps JSON et gzip), avec l'éviction de Caffeine.
+ */
+@Component
+public class EncodedResponseCache {
+
+    public enum Kind {ARTICLE, LATEST, CATEGORIES, AUTHOR}
+
+    /**
+     * Ressource mise en cache ; variant distingue les représentations d'une même ressource (vue et taille de /latest).
+     */
+    public record Key(Kind kind, Long id, String variant) {
+
+        public static Key article(Long id) {
+            return new Key(Kind.ARTICLE, id, null);
+        }
+
+        public static Key latest(String view, int size) {
+            return new Key(Kind.LATEST, null, view + ":" + size);
+        }
+
+        public static Key categories() {
+            return new Key(Kind.CATEGORIES, null, null);
+        }
+
+        public static Key author(Long id) {
+            return new Key(Kind.AUTHOR, id, null);
+        }
+    }
+
+    // En dessous, gzip n'allège presque rien et coûte un aller-retour de décompression au client
+    private static final int GZIP_MIN_SIZE = 1024;
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, EncodedResponse> cache;
+
+    public EncodedResponseCache(
+            ObjectMapper objectMapper,
+            @Value("${blog.response-cache.maximum-size:32MB}") DataSize maximumSize,
+            @Value("${blog.response-cache.expire-after-access:PT30M}") Duration expireAfterAccess
+    ) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((Key key, EncodedResponse response) -> ENTRY_OVERHEAD_BYTES + response.size())
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * Réponse encodée pour cette version, ou null si elle n'est pas en cache.
+     */
+    public EncodedResponse find(Key key, ResourceVersion version) {
+        EncodedResponse response = cache.getIfPresent(key);
+        return response != null && response.version().equals(version) ? response : null;
+    }
+
+    /**
+     * Réponse encodée pour cette version, encodée à partir du DTO fourni si besoin. Un supplier qui renvoie null
+     * (ressource disparue entre-temps) donne null.
+     *
+     * Comme dans ArticleDTOCache, l'encodage se fait hors de Cache.get() pour ne pas épingler un thread virtuel ;
+     * deux requêtes simultanées sur une entrée absente l'encodent chacune, la seconde remplace la première.
+     */
+    public EncodedResponse get(Key key, ResourceVersion version, Supplier<?> body) {
+        EncodedResponse response = find(key, version);
+        if (response != null) {
+            return response;
+        }
+        Object dto = body.get();
+        return dto != null ? put(key, version, dto) : null;
+    }
+
+    public EncodedResponse put(Key key, ResourceVersion version, Object dto) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        EncodedResponse response = new EncodedResponse(version, json, json.length >= GZIP_MIN_SIZE ? ContentCoding.gzip(json) : null);
+        cache.put(key, response);
+        return response;
+    }
+
+    public void invalidate(Key key) {
+        cache.invalidate(key);
+    }
+
+    // Un article change : sa page, /latest et les compteurs de /categories ne sont plus à jour
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        cache.invalidate(Key.article(event.article().getId()));
+        invalidateCollections();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleReferencesChanged(ArticleReferencesChangedEvent event) {
+        for (Long articleId : event.articleIds()) {
+            cache.invalidate(Key.article(articleId));
+        }
+        invalidateCollections();
+    }
+
+    private void invalidateCollections() {
+        cache.asMap().keySet().removeIf(key -> key.kind() == Kind.LATEST || key.kind() == Kind.CATEGORIES);
+    }
+}
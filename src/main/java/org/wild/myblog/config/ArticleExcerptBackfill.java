@@ -0,0 +1,31 @@
+package org.wild.myblog.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.wild.myblog.repository.ArticleRepository;
+
+@Component
+public class ArticleExcerptBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleExcerptBackfill.class);
+
+    private final ArticleRepository articleRepository;
+
+    public ArticleExcerptBackfill(ArticleRepository articleRepository) {
+        this.articleRepository = articleRepository;
+    }
+
+    // Une seule requête UPDATE côté base, le contenu des articles ne transite pas par l'application
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillExcerpts() {
+        int updated = articleRepository.backfillMissingExcerpts();
+        if (updated > 0) {
+            log.info("Extrait calculé pour {} article(s) existant(s)", updated);
+        }
+    }
+}
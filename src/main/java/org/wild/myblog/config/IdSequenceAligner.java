@@ -0,0 +1,69 @@
+package org.wild.myblog.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.wild.myblog.model.Article;
+
+import java.util.Map;
+
+/**
+ * Article, ArticleAuthor et Image utilisaient des ids IDENTITY (AUTO_INCREMENT) avant de passer à des séquences.
+ * Sur une base existante, la séquence créée par Hibernate repart de 1 : on la replace après le plus grand id
+ * de sa table avant que l'application n'accepte des requêtes.
+ *
+ * MySQL n'ayant pas de séquences, Hibernate les émule avec une table à une ligne (colonne next_val).
+ */
+@Component
+public class IdSequenceAligner implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    // séquence -> table dont elle fournit les ids
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "article_seq", "article",
+            "article_author_seq", "article_author",
+            "image_seq", "image"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SEQUENCES.forEach(this::align);
+    }
+
+    private void align(String sequence, String table) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // L'optimiseur pooled lit la valeur suivante comme borne haute d'un bloc de ID_ALLOCATION_SIZE ids
+        long restartValue = maxId + Article.ID_ALLOCATION_SIZE;
+        if (dialect.getSequenceSupport().supportsSequences()) {
+            // Consommer une valeur ne fait que sauter un bloc ; le bloc suivant commence juste après elle
+            Long nextValue = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+            if (nextValue != null && nextValue < maxId) {
+                jdbcTemplate.execute("alter sequence " + sequence + " restart with " + restartValue);
+                log.info("Séquence {} replacée après l'id {} de {}", sequence, maxId, table);
+            }
+        } else {
+            int updated = jdbcTemplate.update("update " + sequence + " set next_val = ? where next_val - ? < ?",
+                    restartValue, Article.ID_ALLOCATION_SIZE, maxId);
+            if (updated > 0) {
+                log.info("Séquence {} replacée après l'id {} de {}", sequence, maxId, table);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.wild.myblog.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métriques exposées par GET /actuator/prometheus ; la configuration des histogrammes est dans application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // La collecte de Prometheus toutes les quelques secondes ne doit pas se mêler à la latence des routes du blog
+    @Bean
+    public MeterFilter ignoreActuatorRequests() {
+        return MeterFilter.deny(id -> id.getName().startsWith("http.server.requests")
+                && id.getTag("uri") != null && id.getTag("uri").startsWith("/actuator"));
+    }
+}
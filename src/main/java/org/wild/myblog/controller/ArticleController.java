@@ -1,88 +1,291 @@
 package org.wild.myblog.controller;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.wild.myblog.cache.ArticleDTOCache;
+import org.wild.myblog.cache.CachedArticle;
+import org.wild.myblog.cache.EncodedResponse;
+import org.wild.myblog.cache.EncodedResponseCache;
+import org.wild.myblog.datasource.ReadRouting;
 import org.wild.myblog.dto.ArticleDTO;
-import org.wild.myblog.dto.AuthorDTO;
+import org.wild.myblog.dto.ArticleQueryResultDTO;
+import org.wild.myblog.dto.ArticleSummaryDTO;
+import org.wild.myblog.dto.ArticleViewsDTO;
+import org.wild.myblog.dto.BulkImportResultDTO;
+import org.wild.myblog.dto.CacheStatsDTO;
+import org.wild.myblog.dto.CursorPageDTO;
+import org.wild.myblog.dto.FacetCountDTO;
+import org.wild.myblog.dto.SuggestionDTO;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.feed.ArticleEventBroadcaster;
+import org.wild.myblog.feed.LatestArticlesFeed;
+import org.wild.myblog.feed.LatestArticlesSnapshot;
+import org.wild.myblog.jdbc.QueryBudget;
+import org.wild.myblog.mapper.ArticleMapper;
+import org.wild.myblog.mapper.ArticleSummaryMapper;
 import org.wild.myblog.model.*;
+import org.wild.myblog.pagination.ArticleCursor;
+import org.wild.myblog.pagination.PageSize;
+import org.wild.myblog.pagination.SearchCursor;
 import org.wild.myblog.repository.*;
-
+import org.wild.myblog.search.ArticleFacetIndex;
+import org.wild.myblog.search.ArticleSearchIndex;
+import org.wild.myblog.search.RelatedArticleIndex;
+import org.wild.myblog.search.SearchHits;
+import org.wild.myblog.search.SuggestIndex;
+import org.wild.myblog.service.ArticleExportService;
+import org.wild.myblog.service.ArticleImportService;
+import org.wild.myblog.views.ArticleViewCounter;
+import org.wild.myblog.views.MostViewedSnapshot;
+import org.wild.myblog.web.ContentCoding;
+import org.wild.myblog.web.ResourceVersion;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/articles")
 public class ArticleController {
 
+    private static final String FULL_VIEW = "full";
+    private static final String SUMMARY_VIEW = "summary";
+    private static final int DEFAULT_FACET_SIZE = 10;
+
     private final ArticleRepository articleRepository;
     private final CategoryRepository categoryRepository;
     private final ImageRepository imageRepository;
     private final AuthorRepository authorRepository;
     private final ArticleAuthorRepository articleAuthorRepository;
-
-    public ArticleController(ArticleRepository articleRepository, CategoryRepository categoryRepository, ImageRepository imageRepository, AuthorRepository authorRepository, ArticleAuthorRepository articleAuthorRepository) {
+    private final ArticleSearchIndex articleSearchIndex;
+    private final SuggestIndex suggestIndex;
+    private final ArticleFacetIndex articleFacetIndex;
+    private final RelatedArticleIndex relatedArticleIndex;
+    private final ArticleDTOCache articleDTOCache;
+    private final EncodedResponseCache encodedResponseCache;
+    private final ArticleImportService articleImportService;
+    private final ArticleExportService articleExportService;
+    private final LatestArticlesFeed latestArticlesFeed;
+    private final ArticleEventBroadcaster articleEventBroadcaster;
+    private final ArticleSummaryMapper articleSummaryMapper;
+    private final ReferenceLookup referenceLookup;
+    private final ArticleViewCounter articleViewCounter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate primaryReadTransaction;
+
+    public ArticleController(ArticleRepository articleRepository, CategoryRepository categoryRepository, ImageRepository imageRepository, AuthorRepository authorRepository, ArticleAuthorRepository articleAuthorRepository, ArticleSearchIndex articleSearchIndex, SuggestIndex suggestIndex, ArticleFacetIndex articleFacetIndex, RelatedArticleIndex relatedArticleIndex, ArticleDTOCache articleDTOCache, EncodedResponseCache encodedResponseCache, ArticleImportService articleImportService, ArticleExportService articleExportService, LatestArticlesFeed latestArticlesFeed, ArticleEventBroadcaster articleEventBroadcaster, ArticleSummaryMapper articleSummaryMapper, ReferenceLookup referenceLookup, ArticleViewCounter articleViewCounter, ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.articleRepository = articleRepository;
         this.categoryRepository = categoryRepository;
         this.imageRepository = imageRepository;
         this.authorRepository = authorRepository;
         this.articleAuthorRepository = articleAuthorRepository;
+        this.articleSearchIndex = articleSearchIndex;
+        this.suggestIndex = suggestIndex;
+        this.articleFacetIndex = articleFacetIndex;
+        this.relatedArticleIndex = relatedArticleIndex;
+        this.articleDTOCache = articleDTOCache;
+        this.encodedResponseCache = encodedResponseCache;
+        this.articleImportService = articleImportService;
+        this.articleExportService = articleExportService;
+        this.latestArticlesFeed = latestArticlesFeed;
+        this.articleEventBroadcaster = articleEventBroadcaster;
+        this.articleSummaryMapper = articleSummaryMapper;
+        this.referenceLookup = referenceLookup;
+        this.articleViewCounter = articleViewCounter;
+        this.eventPublisher = eventPublisher;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // Remplissage du cache : transaction à part, pour que la lecture prenne sa propre connexion à la primaire
+        this.primaryReadTransaction = new TransactionTemplate(transactionManager);
+        this.primaryReadTransaction.setReadOnly(true);
+        this.primaryReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
-    private ArticleDTO convertToDTO(Article article) {
-        ArticleDTO articleDTO = new ArticleDTO();
-        articleDTO.setId(article.getId());
-        articleDTO.setTitle(article.getTitle());
-        articleDTO.setContent(article.getContent());
-        articleDTO.setUpdatedAt(article.getUpdatedAt());
-        if (article.getCategory() != null) {
-            articleDTO.setCategoryName(article.getCategory().getName());
+    // Les deux méthodes suivantes doivent produire la même version pour le même état en base
+
+    private static ResourceVersion versionOf(ArticleVersion version) {
+        return ResourceVersion.of(version.getUpdatedAt(), version.getCategoryUpdatedAt(),
+                version.getAuthorsUpdatedAt(), version.getAuthorLinkCount(), version.getAuthorLinkMaxId(),
+                version.getImagesUpdatedAt(), version.getImageCount());
+    }
+
+    private static ResourceVersion versionOf(Article article) {
+        List<ArticleAuthor> articleAuthors = article.getArticleAuthors() != null ? article.getArticleAuthors() : List.of();
+        List<Image> images = article.getImages() != null ? article.getImages() : List.of();
+        return ResourceVersion.of(article.getUpdatedAt(),
+                article.getCategory() != null ? article.getCategory().getUpdatedAt() : null,
+                articleAuthors.stream().map(ArticleAuthor::getAuthor).filter(Objects::nonNull)
+                        .map(Author::getUpdatedAt).filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null),
+                (long) articleAuthors.size(),
+                articleAuthors.stream().map(ArticleAuthor::getId).max(Comparator.naturalOrder()).orElse(null),
+                images.stream().map(Image::getUpdatedAt).filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null),
+                (long) images.size());
+    }
+
+    private ResourceVersion collectionVersion() {
+        ArticleCollectionVersion version = articleRepository.findCollectionVersion();
+        return ResourceVersion.of(version.getArticlesUpdatedAt(), version.getArticleCount(),
+                version.getCategoriesUpdatedAt(), version.getAuthorsUpdatedAt(), version.getImagesUpdatedAt(),
+                version.getAuthorLinkCount(), version.getAuthorLinkMaxId());
+    }
+
+    private static <T> List<T> inRankOrder(List<T> rows, List<Long> rankedIds, Function<T, Long> idOf) {
+        Map<Long, T> rowsById = new HashMap<>();
+        for (T row : rows) {
+            rowsById.put(idOf.apply(row), row);
         }
-        if (article.getImages() != null) {
-            articleDTO.setImageUrls(article.getImages().stream().map(Image::getUrl).toList());
+        return rankedIds.stream().map(rowsById::get).filter(Objects::nonNull).toList();
+    }
+
+    private static boolean isSummaryView(String view) {
+        return SUMMARY_VIEW.equalsIgnoreCase(view);
+    }
+
+    /**
+     * @throws IllegalArgumentException si le curseur fourni est invalide
+     */
+    private static ArticleCursor resolveCursor(String cursor) {
+        return cursor == null ? ArticleCursor.START : ArticleCursor.decode(cursor);
+    }
+
+    // Les requêtes demandent pageSize + 1 lignes : la ligne en trop indique seulement qu'une page suivante existe
+    private ResponseEntity<CursorPageDTO<?>> toPageResponse(List<Article> articles, int pageSize) {
+        if (articles.isEmpty()) {
+            return ResponseEntity.noContent().build();
         }
-        if (article.getArticleAuthors() != null) {
-            articleDTO.setAuthors(article.getArticleAuthors().stream()
-                .filter(articleAuthor -> articleAuthor.getAuthor() != null)
-                .map(articleAuthor -> {
-                    AuthorDTO authorDTO = new AuthorDTO();
-                    authorDTO.setId(articleAuthor.getAuthor().getId());
-                    authorDTO.setFirstname(articleAuthor.getAuthor().getFirstname());
-                    authorDTO.setLastname(articleAuthor.getAuthor().getLastname());
-                    return authorDTO;
-                })
-                .collect(Collectors.toList())
-            );
+        boolean hasNext = articles.size() > pageSize;
+        List<Article> pageArticles = hasNext ? articles.subList(0, pageSize) : articles;
+        String nextCursor = hasNext ? ArticleCursor.of(pageArticles.get(pageSize - 1)).encode() : null;
+        List<ArticleDTO> articleDTOs = pageArticles.stream().map(ArticleMapper::toDTO).toList();
+        return ResponseEntity.ok(new CursorPageDTO<>(articleDTOs, pageSize, nextCursor));
+    }
+
+    private ResponseEntity<CursorPageDTO<?>> toSummaryPageResponse(List<ArticleSummary> summaries, int pageSize) {
+        if (summaries.isEmpty()) {
+            return ResponseEntity.noContent().build();
         }
-        return articleDTO;
+        return ResponseEntity.ok(articleSummaryMapper.toPage(summaries, pageSize));
     }
 
     @GetMapping
-    public ResponseEntity<List<ArticleDTO>> getAllArticles() {
-        List<Article> articles = articleRepository.findAll();
-        if (articles.isEmpty()) {
-            return ResponseEntity.noContent().build();
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPageDTO<?>> getAllArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = FULL_VIEW) String view,
+            WebRequest request
+    ) {
+        ResourceVersion version = collectionVersion();
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        ArticleCursor position;
+        try {
+            position = resolveCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = PageSize.bounded(size);
+        Limit limit = Limit.of(pageSize + 1);
+        if (isSummaryView(view)) {
+            return toSummaryPageResponse(articleRepository.findSummaryPageBefore(position.createdAt(), position.id(), limit), pageSize);
         }
-        List<ArticleDTO> articleDTOs = articles.stream().map(this::convertToDTO).toList();
-        return ResponseEntity.ok(articleDTOs);
+        return toPageResponse(articleRepository.findPageBefore(position.createdAt(), position.id(), limit), pageSize);
     }
 
+    // Le corps JSON vient d'EncodedResponseCache : une lecture d'un article en cache ne refait ni le mapping ni la sérialisation.
+    // Pas de transaction autour de la méthode : la connexion de la lecture de version serait gardée pendant le remplissage
+    // du cache, qui en prend une seconde au même pool.
     @GetMapping("/{id}")
-    public ResponseEntity<ArticleDTO> getArticleById(@PathVariable Long id) {
-        Article article = articleRepository.findById(id).orElse(null);
-        if (article == null) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<byte[]> getArticleById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request
+    ) {
+        boolean gzip = ContentCoding.acceptsGzip(acceptEncoding);
+        CachedArticle cachedArticle = articleDTOCache.getIfPresent(id);
+        ResourceVersion resourceVersion;
+        if (cachedArticle == null) {
+            // Validation sur la seule version : un 304 ne charge pas l'article. Lecture seule, donc sur un réplica
+            ArticleVersion version = readTransaction.execute(status -> articleRepository.findVersionById(id).orElse(null));
+            if (version == null) {
+                return ResponseEntity.notFound().build();
+            }
+            resourceVersion = versionOf(version);
+        } else {
+            resourceVersion = cachedArticle.version();
+        }
+        if (request.checkNotModified(EncodedResponse.etagFor(resourceVersion, gzip), resourceVersion.lastModified())) {
+            return null;
         }
-        return ResponseEntity.ok(convertToDTO(article));
+        // Une revalidation (304) n'est pas une lecture
+        articleViewCounter.record(id);
+        EncodedResponseCache.Key key = EncodedResponseCache.Key.article(id);
+        EncodedResponse encodedResponse = encodedResponseCache.find(key, resourceVersion);
+        if (encodedResponse == null) {
+            if (cachedArticle == null) {
+                // Lu sur la primaire : un réplica en retard remettrait en cache, jusqu'au TTL, la version qu'une écriture vient d'invalider
+                cachedArticle = articleDTOCache.get(id, articleId -> ReadRouting.onPrimary(() -> primaryReadTransaction.execute(status ->
+                        articleRepository.findById(articleId)
+                                .map(article -> new CachedArticle(ArticleMapper.toDTO(article), versionOf(article)))
+                                .orElse(null))));
+                if (cachedArticle == null) {
+                    return ResponseEntity.notFound().build();
+                }
+            }
+            // Encodé sous la version du DTO chargé, qui peut être plus récente que celle lue plus haut
+            encodedResponse = encodedResponseCache.put(key, cachedArticle.version(), cachedArticle.article());
+        }
+        return encodedResponse.toResponse(gzip);
+    }
+
+    // Tout le corpus en NDJSON, écrit au fil de la lecture (voir ArticleExportService)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportArticles() {
+        StreamingResponseBody body = outputStream -> articleExportService.exportNdjson(outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsDTO> getArticleCacheStats() {
+        return ResponseEntity.ok(articleDTOCache.stats());
     }
 
     @PostMapping
+    @Transactional
     public ResponseEntity<ArticleDTO> createArticle(@RequestBody Article article) {
-        article.setCreatedAt(LocalDateTime.now());
-        article.setUpdatedAt(LocalDateTime.now());
+        // À la microseconde, comme en base : versionOf(Article) et versionOf(ArticleVersion) doivent coïncider
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        article.setCreatedAt(now);
+        article.setUpdatedAt(now);
 
+        // Toutes les références sont vérifiées avant la première écriture
         if (article.getCategory() != null) {
             Category category = categoryRepository.findById(article.getCategory().getId()).orElse(null);
             if (category == null) {
@@ -90,47 +293,84 @@ public class ArticleController {
             }
             article.setCategory(category);
         }
-
-        if (article.getImages() != null && !article.getImages().isEmpty()) {
-            List<Image> validImages = new ArrayList<>();
-            for (Image image : article.getImages()) {
-                if (image.getId() != null) {
-                    Image existingImage = imageRepository.findById(image.getId()).orElse(null);
-                    if (existingImage != null) {
-                        validImages.add(existingImage);
-                    } else {
-                        return ResponseEntity.badRequest().body(null);
-                    }
-                } else { // Si l'image n'existe pas en BDD, on la crée en BDD et on l'ajoute à la liste aussi
-                    Image savedImage = imageRepository.save(image);
-                    validImages.add(savedImage);
-                }
-            }
-            article.setImages(validImages);
+        List<Image> images = resolveImages(article.getImages());
+        List<ArticleAuthor> requestedArticleAuthors = article.getArticleAuthors() != null ? article.getArticleAuthors() : List.of();
+        Map<Long, Author> authors = resolveAuthors(requestedArticleAuthors);
+        if (images == null || authors == null) {
+            return ResponseEntity.badRequest().body(null);
         }
 
+        // Si une image n'existe pas en BDD, on la crée en BDD et on l'ajoute à la liste aussi
+        imageRepository.saveAll(images.stream().filter(image -> image.getId() == null).toList());
+        article.setImages(images);
         Article savedArticle = articleRepository.save(article);
 
-        if (article.getArticleAuthors() != null) {
-            for (ArticleAuthor articleAuthor : article.getArticleAuthors()) {
-                Author author = articleAuthor.getAuthor();
-                author = authorRepository.findById(author.getId()).orElse(null);
-                if (author == null) {
-                    return ResponseEntity.badRequest().body(null);
-                }
+        for (ArticleAuthor articleAuthor : requestedArticleAuthors) {
+            articleAuthor.setAuthor(authors.get(articleAuthor.getAuthor().getId()));
+            articleAuthor.setArticle(savedArticle);
+        }
+        articleAuthorRepository.saveAll(requestedArticleAuthors);
+        savedArticle.setArticleAuthors(new ArrayList<>(requestedArticleAuthors));
+
+        eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED, savedArticle));
+        return ResponseEntity.status(HttpStatus.CREATED).body(ArticleMapper.toDTO(savedArticle));
+    }
 
-                articleAuthor.setAuthor(author);
-                articleAuthor.setArticle(savedArticle);
-                articleAuthor.setContribution(articleAuthor.getContribution());
+    /**
+     * Images demandées, dans l'ordre : celles qui ont un id sont chargées en une requête, les autres sont
+     * de nouvelles images à enregistrer. Renvoie null si un id n'existe pas.
+     */
+    private List<Image> resolveImages(List<Image> requestedImages) {
+        if (requestedImages == null) {
+            return new ArrayList<>();
+        }
+        Set<Long> imageIds = requestedImages.stream().map(Image::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Image> existingImages = imageIds.isEmpty() ? Map.of() : referenceLookup.findAllById(Image.class, imageIds).stream()
+                .collect(Collectors.toMap(Image::getId, Function.identity()));
+        if (existingImages.size() != imageIds.size()) {
+            return null;
+        }
+        List<Image> images = new ArrayList<>();
+        for (Image image : requestedImages) {
+            if (image.getId() != null) {
+                images.add(existingImages.get(image.getId()));
+            } else {
+                // Une image créée avec l'article ne pointe jamais vers un fichier du stockage (voir ImageController)
+                image.setContentHash(null);
+                image.setContentType(null);
+                image.setContentLength(null);
+                images.add(image);
+            }
+        }
+        return images;
+    }
 
-                articleAuthorRepository.save(articleAuthor);
+    // Auteurs référencés par les liens, chargés en une requête ; null si un auteur manque ou n'existe pas
+    private Map<Long, Author> resolveAuthors(List<ArticleAuthor> requestedArticleAuthors) {
+        Set<Long> authorIds = new HashSet<>();
+        for (ArticleAuthor articleAuthor : requestedArticleAuthors) {
+            if (articleAuthor.getAuthor() == null || articleAuthor.getAuthor().getId() == null) {
+                return null;
             }
+            authorIds.add(articleAuthor.getAuthor().getId());
+        }
+        if (authorIds.isEmpty()) {
+            return Map.of();
         }
+        Map<Long, Author> authors = referenceLookup.findAllById(Author.class, authorIds).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+        return authors.size() == authorIds.size() ? authors : null;
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedArticle));
+    // Tableau JSON ou NDJSON (un article par ligne) ; le corps est lu au fil de l'eau
+    @QueryBudget(QueryBudget.UNLIMITED) // quelques requêtes par tranche de l'import
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportResultDTO> importArticles(InputStream body) throws IOException {
+        return ResponseEntity.ok(articleImportService.importArticles(body));
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<ArticleDTO> updateArticle(
             @PathVariable Long id,
             @RequestBody Article articleDetails
@@ -140,70 +380,90 @@ public class ArticleController {
             return ResponseEntity.notFound().build();
         }
 
-        article.setTitle(articleDetails.getTitle());
-        article.setContent(articleDetails.getContent());
-        article.setUpdatedAt(LocalDateTime.now());
-
+        // Toutes les références sont vérifiées avant la première écriture
+        Category category = null;
         if (articleDetails.getCategory() != null) {
-            Category category = categoryRepository.findById(articleDetails.getCategory().getId()).orElse(null);
+            category = categoryRepository.findById(articleDetails.getCategory().getId()).orElse(null);
             if (category == null) {
                 return ResponseEntity.badRequest().body(null);
             }
+        }
+        List<Image> images = resolveImages(articleDetails.getImages());
+        Map<Long, Author> authors = articleDetails.getArticleAuthors() != null ? resolveAuthors(articleDetails.getArticleAuthors()) : Map.of();
+        if (images == null || authors == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        article.setTitle(articleDetails.getTitle());
+        article.setContent(articleDetails.getContent());
+        article.setUpdatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        if (category != null) {
             article.setCategory(category);
         }
 
-        if (article.getImages() != null && !article.getImages().isEmpty()) {
-            List<Image> validImages = new ArrayList<>();
-            for (Image image : article.getImages()) {
-                if (image.getId() != null) {
-                    Image existingImage = imageRepository.findById(image.getId()).orElse(null);
-                    if (existingImage != null) {
-                        validImages.add(existingImage);
-                    } else {
-                        return ResponseEntity.badRequest().build();
-                    }
-                } else {
-                    Image savedImage = imageRepository.save(image);
-                    validImages.add(savedImage);
-                }
-            }
-            article.setImages(validImages);
-        } else {
-            // Si aucune image n'est fournie, on vide la liste des images
+        // Si aucune image n'est fournie, on vide la liste des images. La table de jointure n'est réécrite
+        // que si la liste a changé.
+        imageRepository.saveAll(images.stream().filter(image -> image.getId() == null).toList());
+        if (!sameIds(article.getImages(), images, Image::getId)) {
             article.getImages().clear();
+            article.getImages().addAll(images);
         }
 
         if (articleDetails.getArticleAuthors() != null) {
-            for (ArticleAuthor articleAuthor : article.getArticleAuthors()) {
-                articleAuthorRepository.delete(articleAuthor);
-            }
-
-            List<ArticleAuthor> updatedArticleAuthors = new ArrayList<>();
-
-            for (ArticleAuthor articleAuthor : articleDetails.getArticleAuthors()) {
-                Author author = articleAuthor.getAuthor();
-                author = authorRepository.findById(author.getId()).orElse(null);
-                if (author == null) {
-                    return ResponseEntity.badRequest().build();
-                }
+            updateArticleAuthors(article, articleDetails.getArticleAuthors(), authors);
+        }
 
-                ArticleAuthor newArticleAuthor = new ArticleAuthor();
-                newArticleAuthor.setAuthor(author);
-                newArticleAuthor.setArticle(article);
-                newArticleAuthor.setContribution(articleAuthor.getContribution());
+        Article updatedArticle = articleRepository.save(article);
+        eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.UPDATED, updatedArticle));
+        return ResponseEntity.ok(ArticleMapper.toDTO(updatedArticle));
+    }
 
-                updatedArticleAuthors.add(newArticleAuthor);
+    /**
+     * Applique la nouvelle liste d'auteurs en ne touchant que les liens qui changent : un auteur déjà lié
+     * garde sa ligne (la contribution n'est mise à jour que si elle diffère), les nouveaux sont insérés et
+     * ceux qui ne sont plus listés sont supprimés.
+     */
+    private void updateArticleAuthors(Article article, List<ArticleAuthor> requestedArticleAuthors, Map<Long, Author> authors) {
+        Map<Long, ArticleAuthor> currentByAuthorId = new HashMap<>();
+        List<ArticleAuthor> unlinked = new ArrayList<>();
+        for (ArticleAuthor articleAuthor : article.getArticleAuthors()) {
+            if (articleAuthor.getAuthor() == null || currentByAuthorId.putIfAbsent(articleAuthor.getAuthor().getId(), articleAuthor) != null) {
+                unlinked.add(articleAuthor);
             }
+        }
 
-            for (ArticleAuthor articleAuthor : updatedArticleAuthors) {
-                articleAuthorRepository.save(articleAuthor);
+        List<ArticleAuthor> updatedArticleAuthors = new ArrayList<>();
+        List<ArticleAuthor> newArticleAuthors = new ArrayList<>();
+        for (ArticleAuthor requested : requestedArticleAuthors) {
+            ArticleAuthor articleAuthor = currentByAuthorId.remove(requested.getAuthor().getId());
+            if (articleAuthor == null) {
+                articleAuthor = new ArticleAuthor();
+                articleAuthor.setAuthor(authors.get(requested.getAuthor().getId()));
+                articleAuthor.setArticle(article);
+                newArticleAuthors.add(articleAuthor);
             }
-
-            article.setArticleAuthors(updatedArticleAuthors);
+            // Entité gérée : l'UPDATE n'est émis que si la valeur change
+            articleAuthor.setContribution(requested.getContribution());
+            updatedArticleAuthors.add(articleAuthor);
         }
+        unlinked.addAll(currentByAuthorId.values());
 
-        Article updatedArticle = articleRepository.save(article);
-        return ResponseEntity.ok(convertToDTO(updatedArticle));
+        articleAuthorRepository.deleteAll(unlinked);
+        articleAuthorRepository.saveAll(newArticleAuthors);
+        article.setArticleAuthors(updatedArticleAuthors);
+    }
+
+    private static <T> boolean sameIds(List<T> current, List<T> requested, Function<T, Long> idOf) {
+        if (current.size() != requested.size()) {
+            return false;
+        }
+        for (int i = 0; i < current.size(); i++) {
+            Long requestedId = idOf.apply(requested.get(i));
+            if (requestedId == null || !requestedId.equals(idOf.apply(current.get(i)))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @DeleteMapping("/{id}")
@@ -218,36 +478,218 @@ public class ArticleController {
             }
         }
         articleRepository.delete(article);
+        eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.DELETED, article));
         return ResponseEntity.noContent().build();
     }
 
+    // Recherche plein texte servie par l'index en mémoire, résultats classés par pertinence (BM25)
     @GetMapping("/search-content")
-    public ResponseEntity<List<ArticleDTO>> getArticlesByContent(@RequestParam String searchTerms) {
-        List<Article> articles = articleRepository.findArticlesByContentContaining(searchTerms);
-        if (articles.isEmpty()) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPageDTO<?>> getArticlesByContent(
+            @RequestParam String searchTerms,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = FULL_VIEW) String view,
+            WebRequest request
+    ) {
+        ResourceVersion version = collectionVersion();
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        int offset;
+        try {
+            offset = cursor == null ? 0 : SearchCursor.decode(cursor).offset();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = PageSize.bounded(size);
+        SearchHits hits = articleSearchIndex.search(searchTerms, offset, pageSize);
+        List<Long> articleIds = hits.articleIds();
+        if (articleIds.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        List<ArticleDTO> articleDTOs = articles.stream().map(this::convertToDTO).toList();
-        return ResponseEntity.ok(articleDTOs);
+        // Pas de page au-delà de SearchCursor.MAX_OFFSET : la recherche doit alors être affinée
+        String nextCursor = offset + articleIds.size() < hits.totalHits() && offset + pageSize <= SearchCursor.MAX_OFFSET
+                ? new SearchCursor(offset + pageSize).encode() : null;
+        if (isSummaryView(view)) {
+            List<ArticleSummary> summaries = inRankOrder(articleRepository.findSummaryByIdIn(articleIds), articleIds, ArticleSummary::getId);
+            return ResponseEntity.ok(new CursorPageDTO<>(articleSummaryMapper.toDTOs(summaries), pageSize, nextCursor));
+        }
+        List<Article> articles = inRankOrder(articleRepository.findByIdIn(articleIds), articleIds, Article::getId);
+        return ResponseEntity.ok(new CursorPageDTO<>(articles.stream().map(ArticleMapper::toDTO).toList(), pageSize, nextCursor));
     }
 
     @GetMapping("/search-after")
-    public ResponseEntity<List<ArticleDTO>> getArticlesByCreationDateAfter(@RequestParam String searchTerms) {
-        List<Article> articles = articleRepository.findArticlesByCreatedAtAfter(LocalDateTime.parse(searchTerms));
-        if (articles.isEmpty()) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPageDTO<?>> getArticlesByCreationDateAfter(
+            @RequestParam String searchTerms,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = FULL_VIEW) String view,
+            WebRequest request
+    ) {
+        ResourceVersion version = collectionVersion();
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        ArticleCursor position;
+        try {
+            position = resolveCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = PageSize.bounded(size);
+        Limit limit = Limit.of(pageSize + 1);
+        LocalDateTime createdAfter = LocalDateTime.parse(searchTerms);
+        if (isSummaryView(view)) {
+            return toSummaryPageResponse(articleRepository.findSummaryByCreatedAtAfterPageBefore(createdAfter, position.createdAt(), position.id(), limit), pageSize);
+        }
+        return toPageResponse(articleRepository.findByCreatedAtAfterPageBefore(createdAfter, position.createdAt(), position.id(), limit), pageSize);
+    }
+
+    // Articles liés, précalculés en tâche de fond par RelatedArticleIndexer : la requête ne lit que leurs résumés
+    @GetMapping("/{id}/related")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<ArticleSummaryDTO>> getRelatedArticles(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer size
+    ) {
+        int limit = size == null ? relatedArticleIndex.capacity() : Math.max(1, Math.min(size, relatedArticleIndex.capacity()));
+        List<Long> relatedIds = relatedArticleIndex.related(id, limit);
+        if (relatedIds == null) {
+            // Pas encore calculé : article inconnu, ou créé depuis le dernier passage de la tâche
+            return articleRepository.existsById(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        }
+        if (relatedIds.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        List<ArticleDTO> articleDTOs = articles.stream().map(this::convertToDTO).toList();
-        return ResponseEntity.ok(articleDTOs);
+        List<ArticleSummary> summaries = inRankOrder(articleRepository.findSummaryByIdIn(relatedIds), relatedIds, ArticleSummary::getId);
+        return ResponseEntity.ok(articleSummaryMapper.toDTOs(summaries));
+    }
+
+    // Filtres combinables sur catégories, auteurs, dates et termes de recherche, avec le nombre d'articles par
+    // catégorie et par auteur : servis par ArticleFacetIndex, la base ne lit que les résumés de la page
+    @GetMapping("/query")
+    @Transactional(readOnly = true)
+    public ResponseEntity<ArticleQueryResultDTO> queryArticles(
+            @RequestParam(required = false) Set<Long> categoryId,
+            @RequestParam(required = false) Set<Long> authorId,
+            @RequestParam(required = false) String createdAfter,
+            @RequestParam(required = false) String createdBefore,
+            @RequestParam(required = false) String searchTerms,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Integer facetSize,
+            WebRequest request
+    ) {
+        ResourceVersion version = collectionVersion();
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        ArticleCursor position;
+        ArticleFacetIndex.Filter filter;
+        try {
+            position = resolveCursor(cursor);
+            filter = new ArticleFacetIndex.Filter(categoryId, authorId,
+                    createdAfter == null ? null : LocalDateTime.parse(createdAfter),
+                    createdBefore == null ? null : LocalDateTime.parse(createdBefore),
+                    searchTerms == null || searchTerms.isBlank() ? null : articleSearchIndex.matchingArticleIds(searchTerms));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = PageSize.bounded(size);
+        int facetLimit = facetSize == null ? DEFAULT_FACET_SIZE : Math.max(0, Math.min(facetSize, PageSize.MAX));
+        ArticleFacetIndex.Result result = articleFacetIndex.query(filter, position, pageSize + 1, facetLimit);
+
+        boolean hasNext = result.page().size() > pageSize;
+        List<ArticleCursor> page = hasNext ? result.page().subList(0, pageSize) : result.page();
+        String nextCursor = hasNext ? page.get(pageSize - 1).encode() : null;
+        List<Long> articleIds = page.stream().map(ArticleCursor::id).toList();
+        List<ArticleSummary> summaries = articleIds.isEmpty() ? List.of()
+                : inRankOrder(articleRepository.findSummaryByIdIn(articleIds), articleIds, ArticleSummary::getId);
+
+        // Toujours 200, même sans article : les compteurs disent quels filtres retirer
+        return ResponseEntity.ok(new ArticleQueryResultDTO(articleSummaryMapper.toDTOs(summaries), pageSize, nextCursor, result.total(),
+                facetCounts(result.categories(), Category.class, Category::getId, Category::getName),
+                facetCounts(result.authors(), Author.class, Author::getId, author -> author.getFirstname() + " " + author.getLastname())));
+    }
+
+    // Noms des valeurs de facettes, depuis le cache de second niveau
+    private <T> List<FacetCountDTO> facetCounts(List<ArticleFacetIndex.FacetCount> counts, Class<T> entityType, Function<T, Long> idOf, Function<T, String> nameOf) {
+        if (counts.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, T> entities = referenceLookup.findAllById(entityType, counts.stream().map(ArticleFacetIndex.FacetCount::id).toList()).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        return counts.stream()
+                .filter(count -> entities.containsKey(count.id()))
+                .map(count -> new FacetCountDTO(count.id(), nameOf.apply(entities.get(count.id())), count.count()))
+                .toList();
     }
 
+    // Suggestions pendant la saisie, sur les titres et les noms d'auteurs : servies par SuggestIndex, sans requête SQL
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer size
+    ) {
+        if (prefix.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int limit = size == null ? suggestIndex.capacity() : Math.max(1, size);
+        List<SuggestionDTO> suggestions = suggestIndex.suggest(prefix, limit).stream()
+                .map(suggestion -> new SuggestionDTO(suggestion.kind().name().toLowerCase(Locale.ROOT), suggestion.id(), suggestion.label()))
+                .toList();
+        if (suggestions.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(suggestions);
+    }
+
+    // Servi depuis l'instantané en mémoire de LatestArticlesFeed, sans requête SQL, et encodé une fois par version de l'instantané
     @GetMapping("/latest")
-    public ResponseEntity<List<ArticleDTO>> getFiveLastArticles() {
-        List<Article> articles = articleRepository.findTop5ArticlesByOrderByCreatedAtDesc();
-        if (articles.isEmpty()) {
+    public ResponseEntity<byte[]> getLatestArticles(
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = FULL_VIEW) String view,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request
+    ) {
+        boolean gzip = ContentCoding.acceptsGzip(acceptEncoding);
+        LatestArticlesSnapshot snapshot = latestArticlesFeed.snapshot();
+        if (request.checkNotModified(EncodedResponse.etagFor(snapshot.version(), gzip), snapshot.version().lastModified())) {
+            return null;
+        }
+        if (snapshot.entries().isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        int limit = size == null ? latestArticlesFeed.defaultPageSize() : Math.max(1, Math.min(size, latestArticlesFeed.capacity()));
+        boolean summaryView = isSummaryView(view);
+        EncodedResponseCache.Key key = EncodedResponseCache.Key.latest(summaryView ? SUMMARY_VIEW : FULL_VIEW, limit);
+        return encodedResponseCache.get(key, snapshot.version(),
+                () -> summaryView ? snapshot.summaries(limit) : snapshot.articles(limit)).toResponse(gzip);
+    }
+
+    // Articles créés, modifiés et supprimés, poussés en Server-Sent Events (voir ArticleEventBroadcaster).
+    // Remplace l'interrogation régulière de /latest : lire /latest une fois, puis suivre ce flux.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamArticles(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return articleEventBroadcaster.subscribe(lastEventId);
+    }
+
+    // Classement gardé en mémoire par ArticleViewCounter, à jour de la dernière écriture des compteurs
+    @GetMapping("/most-viewed")
+    public ResponseEntity<List<ArticleViewsDTO>> getMostViewedArticles(
+            @RequestParam(required = false) Integer size,
+            WebRequest request
+    ) {
+        MostViewedSnapshot snapshot = articleViewCounter.mostViewed();
+        if (request.checkNotModified(snapshot.version().etag(), snapshot.version().lastModified())) {
+            return null;
+        }
+        if (snapshot.entries().isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        List<ArticleDTO> articleDTOs = articles.stream().map(this::convertToDTO).toList();
-        return ResponseEntity.ok(articleDTOs);
+        int limit = size == null ? PageSize.DEFAULT : Math.max(1, size);
+        return ResponseEntity.ok(snapshot.top(Math.min(limit, articleViewCounter.mostViewedCapacity())));
     }
 }
@@ -1,18 +1,31 @@
 package org.wild.myblog.controller;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.wild.myblog.cache.EncodedResponse;
+import org.wild.myblog.cache.EncodedResponseCache;
 import org.wild.myblog.dto.AuthorDTO;
+import org.wild.myblog.event.ArticleReferencesChangedEvent;
+import org.wild.myblog.event.AuthorChangedEvent;
 import org.wild.myblog.model.Article;
 import org.wild.myblog.model.ArticleAuthor;
 import org.wild.myblog.model.Author;
 import org.wild.myblog.repository.ArticleAuthorRepository;
 import org.wild.myblog.repository.ArticleRepository;
 import org.wild.myblog.repository.AuthorRepository;
+import org.wild.myblog.repository.VersionStamp;
+import org.wild.myblog.web.ContentCoding;
+import org.wild.myblog.web.ResourceVersion;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/authors")
@@ -21,15 +34,24 @@ public class AuthorController {
     private final AuthorRepository authorRepository;
     private final ArticleRepository articleRepository;
     private final ArticleAuthorRepository articleAuthorRepository;
+    private final EncodedResponseCache encodedResponseCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AuthorController(AuthorRepository authorRepository, ArticleRepository articleRepository, ArticleAuthorRepository articleAuthorRepository) {
+    public AuthorController(AuthorRepository authorRepository, ArticleRepository articleRepository, ArticleAuthorRepository articleAuthorRepository, EncodedResponseCache encodedResponseCache, ApplicationEventPublisher eventPublisher) {
         this.authorRepository = authorRepository;
         this.articleRepository = articleRepository;
         this.articleAuthorRepository = articleAuthorRepository;
+        this.encodedResponseCache = encodedResponseCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @GetMapping
-    public ResponseEntity<List<AuthorDTO>> getAllAuthors() {
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<AuthorDTO>> getAllAuthors(WebRequest request) {
+        ResourceVersion version = ResourceVersion.from(authorRepository.findCollectionVersion());
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         List<Author> authors = authorRepository.findAll();
         if (authors.isEmpty()) {
             return ResponseEntity.noContent().build();
@@ -39,17 +61,29 @@ public class AuthorController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<AuthorDTO> getAuthorById(@PathVariable Long id) {
-        Author author = authorRepository.findById(id).orElse(null);
-        if (author == null) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<byte[]> getAuthorById(@PathVariable Long id, @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding, WebRequest request) {
+        boolean gzip = ContentCoding.acceptsGzip(acceptEncoding);
+        VersionStamp versionStamp = authorRepository.findVersionById(id).orElse(null);
+        if (versionStamp == null) {
             return ResponseEntity.notFound().build();
         }
-        AuthorDTO authorDTO = convertToDTO(author);
-        return ResponseEntity.ok(authorDTO);
+        ResourceVersion version = ResourceVersion.from(versionStamp);
+        if (request.checkNotModified(EncodedResponse.etagFor(version, gzip), version.lastModified())) {
+            return null;
+        }
+        // L'auteur n'est chargé que si son corps JSON n'est pas déjà encodé pour cette version
+        EncodedResponse encodedResponse = encodedResponseCache.get(EncodedResponseCache.Key.author(id), version,
+                () -> authorRepository.findById(id).map(this::convertToDTO).orElse(null));
+        if (encodedResponse == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return encodedResponse.toResponse(gzip);
     }
 
     @PostMapping
     public ResponseEntity<AuthorDTO> createAuthor(@RequestBody Author author) {
+        Set<Long> affectedArticleIds = new HashSet<>();
         if (author.getArticleAuthors() != null) {
             for (ArticleAuthor articleAuthor : author.getArticleAuthors()) {
                 Article article = articleAuthor.getArticle();
@@ -62,10 +96,15 @@ public class AuthorController {
                 articleAuthor.setAuthor(author);
 
                 articleAuthorRepository.save(articleAuthor);
+                affectedArticleIds.add(article.getId());
             }
         }
 
         Author savedAuthor = authorRepository.save(author);
+        eventPublisher.publishEvent(new AuthorChangedEvent(AuthorChangedEvent.Type.CREATED, savedAuthor));
+        if (!affectedArticleIds.isEmpty()) {
+            eventPublisher.publishEvent(new ArticleReferencesChangedEvent(affectedArticleIds));
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedAuthor));
     }
 
@@ -76,6 +115,9 @@ public class AuthorController {
             return ResponseEntity.notFound().build();
         }
 
+        // Articles liés avant la modification, auxquels s'ajoutent ceux liés après
+        Set<Long> affectedArticleIds = new HashSet<>(articleRepository.findIdsByAuthorId(id));
+
         author.setFirstname(authorDetails.getFirstname());
         author.setLastname(authorDetails.getLastname());
 
@@ -102,6 +144,7 @@ public class AuthorController {
                 newArticleAuthor.setContribution(articleAuthorDetails.getContribution());
 
                 updatedArticleAuthors.add(newArticleAuthor);
+                affectedArticleIds.add(article.getId());
             }
 
             for (ArticleAuthor articleAuthor : updatedArticleAuthors) {
@@ -113,6 +156,9 @@ public class AuthorController {
         }
 
         Author updatedAuthor = authorRepository.save(author);
+        encodedResponseCache.invalidate(EncodedResponseCache.Key.author(id));
+        eventPublisher.publishEvent(new AuthorChangedEvent(AuthorChangedEvent.Type.UPDATED, updatedAuthor));
+        eventPublisher.publishEvent(new ArticleReferencesChangedEvent(affectedArticleIds));
         return ResponseEntity.ok(convertToDTO(updatedAuthor));
     }
 
@@ -123,6 +169,8 @@ public class AuthorController {
             return ResponseEntity.notFound().build();
         }
 
+        Set<Long> affectedArticleIds = new HashSet<>(articleRepository.findIdsByAuthorId(id));
+
         if (author.getArticleAuthors() != null) {
             for (ArticleAuthor articleAuthor : author.getArticleAuthors()) {
                 articleAuthorRepository.delete(articleAuthor);
@@ -130,6 +178,9 @@ public class AuthorController {
         }
 
         authorRepository.delete(author);
+        encodedResponseCache.invalidate(EncodedResponseCache.Key.author(id));
+        eventPublisher.publishEvent(new AuthorChangedEvent(AuthorChangedEvent.Type.DELETED, author));
+        eventPublisher.publishEvent(new ArticleReferencesChangedEvent(affectedArticleIds));
         return ResponseEntity.noContent().build();
     }
 
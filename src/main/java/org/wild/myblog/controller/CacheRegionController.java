@@ -0,0 +1,53 @@
+package org.wild.myblog.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.wild.myblog.dto.CacheRegionStatsDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Statistiques du cache de second niveau d'Hibernate, région par région (entités, collections et requêtes).
+ * Les compteurs partent du démarrage ; ils restent à zéro si hibernate.generate_statistics est désactivé.
+ */
+@RestController
+@RequestMapping("/cache/regions")
+public class CacheRegionController {
+
+    private final Statistics statistics;
+
+    public CacheRegionController(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @GetMapping
+    public ResponseEntity<List<CacheRegionStatsDTO>> getCacheRegionStats() {
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        List<CacheRegionStatsDTO> regionStatsDTOs = new ArrayList<>();
+        for (String regionName : regionNames) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(regionName);
+            if (regionStatistics == null) {
+                continue;
+            }
+            CacheRegionStatsDTO regionStatsDTO = new CacheRegionStatsDTO();
+            regionStatsDTO.setRegion(regionName);
+            regionStatsDTO.setHits(regionStatistics.getHitCount());
+            regionStatsDTO.setMisses(regionStatistics.getMissCount());
+            regionStatsDTO.setPuts(regionStatistics.getPutCount());
+            long requests = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+            // Comme Caffeine : 1.0 tant qu'aucune lecture n'a eu lieu
+            regionStatsDTO.setHitRate(requests == 0 ? 1.0 : (double) regionStatistics.getHitCount() / requests);
+            regionStatsDTOs.add(regionStatsDTO);
+        }
+        return ResponseEntity.ok(regionStatsDTOs);
+    }
+}
@@ -1,67 +1,124 @@
 package org.wild.myblog.controller;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
-import org.wild.myblog.dto.ArticleDTO;
+import org.springframework.web.context.request.WebRequest;
+import org.wild.myblog.cache.EncodedResponse;
+import org.wild.myblog.cache.EncodedResponseCache;
+import org.wild.myblog.dto.ArticleSummaryDTO;
 import org.wild.myblog.dto.CategoryDTO;
+import org.wild.myblog.dto.CursorPageDTO;
+import org.wild.myblog.event.ArticleReferencesChangedEvent;
+import org.wild.myblog.mapper.ArticleSummaryMapper;
+import org.wild.myblog.mapper.CategoryMapper;
 import org.wild.myblog.model.Category;
+import org.wild.myblog.pagination.ArticleCursor;
+import org.wild.myblog.pagination.PageSize;
+import org.wild.myblog.repository.ArticleRepository;
+import org.wild.myblog.repository.ArticleSummary;
+import org.wild.myblog.repository.CategoryArticleCount;
 import org.wild.myblog.repository.CategoryRepository;
+import org.wild.myblog.web.ContentCoding;
+import org.wild.myblog.web.ResourceVersion;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/categories")
 public class CategoryController {
 
     private final CategoryRepository categoryRepository;
+    private final ArticleRepository articleRepository;
+    private final ArticleSummaryMapper articleSummaryMapper;
+    private final EncodedResponseCache encodedResponseCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CategoryController(CategoryRepository categoryRepository) {
+    public CategoryController(CategoryRepository categoryRepository, ArticleRepository articleRepository, ArticleSummaryMapper articleSummaryMapper, EncodedResponseCache encodedResponseCache, ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.articleRepository = articleRepository;
+        this.articleSummaryMapper = articleSummaryMapper;
+        this.encodedResponseCache = encodedResponseCache;
+        this.eventPublisher = eventPublisher;
     }
 
-    private CategoryDTO convertToDTO(Category category) {
-        CategoryDTO categoryDTO = new CategoryDTO();
-        categoryDTO.setId(category.getId());
-        categoryDTO.setName(category.getName());
-        if (category.getArticles() != null) {
-            categoryDTO.setArticles(category.getArticles().stream().map(article -> {
-                ArticleDTO articleDTO = new ArticleDTO();
-                articleDTO.setId(article.getId());
-                articleDTO.setTitle(article.getTitle());
-                articleDTO.setContent(article.getContent());
-                articleDTO.setUpdatedAt(article.getUpdatedAt());
-                articleDTO.setCategoryName(article.getCategory().getName());
-                return articleDTO;
-            }).collect(Collectors.toList()));
+    // L'ETag reprend toutes les colonnes des lignes renvoyées : la requête groupée suffit pour
+    // répondre 200 comme 304, le menu de navigation coûte donc toujours une seule requête.
+    private static ResourceVersion versionOf(List<CategoryArticleCount> categories) {
+        List<Object> parts = new ArrayList<>();
+        for (CategoryArticleCount category : categories) {
+            parts.add(category.getId());
+            parts.add(category.getName());
+            parts.add(category.getUpdatedAt());
+            parts.add(category.getArticleCount());
+            parts.add(category.getArticlesUpdatedAt());
         }
-        return categoryDTO;
+        return ResourceVersion.of(parts.toArray());
     }
 
+    // Le menu est lu sur presque chaque page : son corps JSON est encodé une fois par version
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
-        List<Category> categories = categoryRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<byte[]> getAllCategories(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding, WebRequest request) {
+        boolean gzip = ContentCoding.acceptsGzip(acceptEncoding);
+        List<CategoryArticleCount> categories = categoryRepository.findAllWithArticleCount();
+        ResourceVersion version = versionOf(categories);
+        if (request.checkNotModified(EncodedResponse.etagFor(version, gzip), version.lastModified())) {
+            return null;
+        }
         if (categories.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        List<CategoryDTO> categoryDTOs = categories.stream().map(this::convertToDTO).toList();
-        return ResponseEntity.ok(categoryDTOs);
+        return encodedResponseCache.get(EncodedResponseCache.Key.categories(), version,
+                () -> categories.stream().map(CategoryMapper::toDTO).toList()).toResponse(gzip);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long id) {
-        Category category = categoryRepository.findById(id).orElse(null);
-        if (category  == null) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long id, WebRequest request) {
+        CategoryArticleCount category = categoryRepository.findWithArticleCountById(id).orElse(null);
+        if (category == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(convertToDTO(category));
+        ResourceVersion version = versionOf(List.of(category));
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok(CategoryMapper.toDTO(category));
+    }
+
+    // Résumés des articles de la catégorie, du plus récent au plus ancien, paginés par curseur comme GET /articles
+    @GetMapping("/{id}/articles")
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPageDTO<ArticleSummaryDTO>> getCategoryArticles(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        ArticleCursor position;
+        try {
+            position = cursor == null ? ArticleCursor.START : ArticleCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = PageSize.bounded(size);
+        List<ArticleSummary> summaries = articleRepository.findSummaryByCategoryIdPageBefore(id, position.createdAt(), position.id(), Limit.of(pageSize + 1));
+        if (summaries.isEmpty()) {
+            // Page vide : on ne vérifie l'existence de la catégorie que dans ce cas
+            return categoryRepository.existsById(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(articleSummaryMapper.toPage(summaries, pageSize));
     }
 
     @PostMapping
     public ResponseEntity<CategoryDTO> createCategory (@RequestBody Category category ) {
         Category savedCategory = categoryRepository.save(category);
-        return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedCategory));
+        return ResponseEntity.status(HttpStatus.CREATED).body(CategoryMapper.toDTO(savedCategory, 0));
     }
 
     @PutMapping("/{id}")
@@ -74,7 +131,9 @@ public class CategoryController {
         category.setName(categoryDetails.getName());
 
         Category updatedCategory = categoryRepository.save(category);
-        return ResponseEntity.ok(convertToDTO(updatedCategory));
+        List<Long> articleIds = articleRepository.findIdsByCategoryId(id);
+        eventPublisher.publishEvent(new ArticleReferencesChangedEvent(new HashSet<>(articleIds)));
+        return ResponseEntity.ok(CategoryMapper.toDTO(updatedCategory, articleIds.size()));
     }
 
     @DeleteMapping("/{id}")
@@ -83,7 +142,9 @@ public class CategoryController {
         if (category == null) {
             return ResponseEntity.notFound().build();
         }
+        List<Long> affectedArticleIds = articleRepository.findIdsByCategoryId(id);
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new ArticleReferencesChangedEvent(new HashSet<>(affectedArticleIds)));
         return ResponseEntity.noContent().build();
     }
 }
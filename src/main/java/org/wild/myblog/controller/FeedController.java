@@ -0,0 +1,82 @@
+package org.wild.myblog.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.wild.myblog.feed.SyndicationFeed;
+import org.wild.myblog.feed.SyndicationFeedCache;
+import org.wild.myblog.web.ContentCoding;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Flux RSS et Atom : /feeds/{rss|atom}, /feeds/categories/{id}/{rss|atom}, /feeds/authors/{id}/{rss|atom}.
+ *
+ * Le corps vient de SyndicationFeedCache, déjà encodé, et compressé si le client accepte gzip. Le 304 est
+ * rendu par Spring à partir de l'ETag et de Last-Modified de la réponse, avec le même en-tête Vary.
+ */
+@RestController
+@RequestMapping("/feeds")
+public class FeedController {
+
+    private final SyndicationFeedCache syndicationFeedCache;
+    private final CacheControl cacheControl;
+
+    public FeedController(SyndicationFeedCache syndicationFeedCache, @Value("${blog.feeds.max-age:PT5M}") Duration maxAge) {
+        this.syndicationFeedCache = syndicationFeedCache;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping("/{format}")
+    public ResponseEntity<byte[]> getBlogFeed(@PathVariable String format, @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(SyndicationFeedCache.Scope.BLOG, null, format, acceptEncoding);
+    }
+
+    @GetMapping("/categories/{id}/{format}")
+    public ResponseEntity<byte[]> getCategoryFeed(@PathVariable Long id, @PathVariable String format, @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(SyndicationFeedCache.Scope.CATEGORY, id, format, acceptEncoding);
+    }
+
+    @GetMapping("/authors/{id}/{format}")
+    public ResponseEntity<byte[]> getAuthorFeed(@PathVariable Long id, @PathVariable String format, @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(SyndicationFeedCache.Scope.AUTHOR, id, format, acceptEncoding);
+    }
+
+    private ResponseEntity<byte[]> serve(SyndicationFeedCache.Scope scope, Long id, String format, String acceptEncoding) {
+        SyndicationFeed.Format feedFormat = parseFormat(format);
+        if (feedFormat == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SyndicationFeed feed = syndicationFeedCache.get(scope, id);
+        if (feed == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SyndicationFeed.Body body = feed.body(feedFormat);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(feedFormat.mediaType()), StandardCharsets.UTF_8))
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .lastModified(feed.lastModified());
+        if (ContentCoding.acceptsGzip(acceptEncoding)) {
+            return response.eTag(body.gzippedEtag()).header(HttpHeaders.CONTENT_ENCODING, ContentCoding.GZIP).body(body.gzipped());
+        }
+        return response.eTag(body.etag()).body(body.xml());
+    }
+
+    private static SyndicationFeed.Format parseFormat(String format) {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "rss" -> SyndicationFeed.Format.RSS;
+            case "atom" -> SyndicationFeed.Format.ATOM;
+            default -> null;
+        };
+    }
+}
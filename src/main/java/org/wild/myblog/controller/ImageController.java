@@ -1,14 +1,34 @@
 package org.wild.myblog.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.wild.myblog.dto.ImageDTO;
+import org.wild.myblog.event.ArticleReferencesChangedEvent;
 import org.wild.myblog.model.Article;
 import org.wild.myblog.model.Image;
 import org.wild.myblog.repository.ArticleRepository;
 import org.wild.myblog.repository.ImageRepository;
+import org.wild.myblog.repository.VersionStamp;
+import org.wild.myblog.storage.ImageContentStore;
+import org.wild.myblog.web.FileRegionWriter;
+import org.wild.myblog.web.ResourceVersion;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
 import java.util.List;
 
 @RestController
@@ -17,14 +37,26 @@ public class ImageController {
 
     private final ImageRepository imageRepository;
     private final ArticleRepository articleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageContentStore imageContentStore;
+    private final CacheControl fileCacheControl;
 
-    public ImageController(ImageRepository imageRepository, ArticleRepository articleRepository) {
+    public ImageController(ImageRepository imageRepository, ArticleRepository articleRepository, ApplicationEventPublisher eventPublisher, ImageContentStore imageContentStore, @Value("${blog.images.max-age:P365D}") Duration fileMaxAge) {
         this.imageRepository = imageRepository;
         this.articleRepository = articleRepository;
+        this.eventPublisher = eventPublisher;
+        this.imageContentStore = imageContentStore;
+        // Le contenu d'une URL /images/files/... ne change jamais
+        this.fileCacheControl = CacheControl.maxAge(fileMaxAge).cachePublic().immutable();
     }
 
     @GetMapping
-    public ResponseEntity<List<ImageDTO>> getAllImages() {
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<ImageDTO>> getAllImages(WebRequest request) {
+        ResourceVersion version = ResourceVersion.from(imageRepository.findCollectionVersion());
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         List<Image> images = imageRepository.findAll();
         if (images.isEmpty()) {
             return ResponseEntity.noContent().build();
@@ -34,7 +66,16 @@ public class ImageController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ImageDTO> getImageById(@PathVariable Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<ImageDTO> getImageById(@PathVariable Long id, WebRequest request) {
+        VersionStamp versionStamp = imageRepository.findVersionById(id).orElse(null);
+        if (versionStamp == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ResourceVersion version = ResourceVersion.from(versionStamp);
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         Image image = imageRepository.findById(id).orElse(null);
         if (image  == null) {
             return ResponseEntity.notFound().build();
@@ -44,10 +85,69 @@ public class ImageController {
 
     @PostMapping
     public ResponseEntity<ImageDTO> createImage (@RequestBody Image image ) {
+        // Une image créée par URL ne pointe jamais vers un fichier du stockage
+        image.setContentHash(null);
+        image.setContentType(null);
+        image.setContentLength(null);
         Image savedImage = imageRepository.save(image);
         return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedImage));
     }
 
+    /**
+     * Envoi d'un fichier image, en corps brut (Content-Type: image/png, image/jpeg...). Un contenu déjà envoyé
+     * n'est pas stocké deux fois : l'image existante est renvoyée avec un 200 au lieu d'un 201.
+     */
+    @PostMapping("/files")
+    public ResponseEntity<ImageDTO> uploadImage(@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType, InputStream body) throws IOException {
+        MediaType mediaType = parseMediaType(contentType);
+        if (!ImageContentStore.isSupported(mediaType)) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        ImageContentStore.StoredContent content = imageContentStore.store(body);
+        if (content == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Image existingImage = imageRepository.findByContentHash(content.hash()).orElse(null);
+        if (existingImage != null) {
+            return ResponseEntity.ok(convertToDTO(existingImage));
+        }
+        Image image = new Image();
+        image.setUrl(ImageContentStore.urlOf(content.hash(), mediaType));
+        image.setContentHash(content.hash());
+        image.setContentType(mediaType.getType() + "/" + mediaType.getSubtype());
+        image.setContentLength(content.size());
+        Image savedImage;
+        try {
+            savedImage = imageRepository.save(image);
+        } catch (DataIntegrityViolationException e) {
+            // Même contenu enregistré entre-temps par un envoi concurrent (index unique sur l'empreinte)
+            existingImage = imageRepository.findByContentHash(content.hash()).orElse(null);
+            if (existingImage == null) {
+                throw e;
+            }
+            return ResponseEntity.ok(convertToDTO(existingImage));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedImage));
+    }
+
+    /**
+     * Fichier d'une image envoyée, servi avec le type enregistré à l'envoi : une autre extension que celle de son URL
+     * (.html, .svg...) donne un 404. L'ETag est l'empreinte.
+     */
+    @GetMapping("/files/{hash:[0-9a-f]+}.{extension:[a-z]+}")
+    @Transactional(readOnly = true)
+    public void getImageFile(@PathVariable String hash, @PathVariable String extension, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Image image = imageRepository.findByContentHash(hash).orElse(null);
+        MediaType mediaType = image != null ? parseMediaType(image.getContentType()) : null;
+        Path file = mediaType != null && extension.equals(ImageContentStore.extensionOf(mediaType)) ? imageContentStore.find(hash) : null;
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        FileRegionWriter.write(file, mediaType, "\"" + hash + "\"", fileCacheControl, request, response);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ImageDTO> updateImage(@PathVariable Long id, @RequestBody Image imageDetails) {
         Image image = imageRepository.findById(id).orElse(null);
@@ -56,6 +156,7 @@ public class ImageController {
         }
         image.setUrl(imageDetails.getUrl());
         Image updatedImage = imageRepository.save(image);
+        eventPublisher.publishEvent(new ArticleReferencesChangedEvent(new HashSet<>(articleRepository.findIdsByImageId(id))));
         return ResponseEntity.ok(convertToDTO(updatedImage));
     }
 
@@ -65,7 +166,9 @@ public class ImageController {
         if (image == null) {
             return ResponseEntity.notFound().build();
         }
+        List<Long> affectedArticleIds = articleRepository.findIdsByImageId(id);
         imageRepository.delete(image);
+        eventPublisher.publishEvent(new ArticleReferencesChangedEvent(new HashSet<>(affectedArticleIds)));
         return ResponseEntity.noContent().build();
     }
 
@@ -73,9 +176,22 @@ public class ImageController {
         ImageDTO imageDTO = new ImageDTO();
         imageDTO.setId(image.getId());
         imageDTO.setUrl(image.getUrl());
+        imageDTO.setContentType(image.getContentType());
+        imageDTO.setContentLength(image.getContentLength());
         if (image.getArticles() != null) {
             imageDTO.setArticleIds(image.getArticles().stream().map(Article::getId).toList());
         }
         return imageDTO;
     }
+
+    private static MediaType parseMediaType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package org.wild.myblog.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Force les transactions en lecture seule du thread courant vers la base primaire.
+ *
+ * Posé par ReadYourWritesFilter pour toute requête d'écriture et pour un client qui vient d'écrire,
+ * ou explicitement avec onPrimary() quand une lecture ne doit pas voir le retard d'un réplica.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = ThreadLocal.withInitial(() -> false);
+
+    private ReadRouting() {
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get();
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(true);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean wasPinned = isPinnedToPrimary();
+        pinToPrimary();
+        try {
+            return action.get();
+        } finally {
+            if (!wasPinned) {
+                unpin();
+            }
+        }
+    }
+}
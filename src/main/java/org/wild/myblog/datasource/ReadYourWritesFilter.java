@@ -0,0 +1,72 @@
+package org.wild.myblog.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Lectures sur la primaire pour toute requête d'écriture, et pour le client qui l'a envoyée pendant la fenêtre
+ * configurée : un cookie porte l'instant jusqu'auquel ses GET ne passent pas par les réplicas, qui peuvent
+ * encore ignorer ce qu'il vient d'écrire.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "blog-primary-reads-until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write && !window.isZero()) {
+            // Posé avant l'écriture de la réponse ; un échec ne fait que garder le client quelques secondes sur la primaire
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis() + window.toMillis()));
+            cookie.setMaxAge((int) Math.max(window.toSeconds(), 1));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        if (!write && !recentlyWrote(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReadRouting.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRouting.unpin();
+        }
+    }
+
+    private boolean recentlyWrote(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    long until = Long.parseLong(cookie.getValue());
+                    // Une valeur au-delà de la fenêtre ne vient pas de nous : ignorée
+                    return until > now && until <= now + window.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,97 @@
+package org.wild.myblog.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source de données avec réplicas de lecture, active dès que blog.datasource.replicas.urls est renseignée.
+ * Sans réplica, Spring Boot configure la source unique habituelle sur spring.datasource.url.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "blog.datasource.replicas", name = "urls")
+public class ReplicaRoutingConfig {
+
+    // Pas candidat à l'injection par type : la seule DataSource visible reste le proxy ci-dessous
+    @Bean(defaultCandidate = false)
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${blog.datasource.replicas.urls}") List<String> replicaUrls,
+            @Value("${blog.datasource.replicas.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${blog.datasource.replicas.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${blog.datasource.replicas.connection-timeout:PT2S}") Duration connectionTimeout,
+            @Value("${blog.datasource.replicas.retry-interval:PT30S}") Duration retryInterval
+    ) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setReadOnly(true);
+            // Un réplica injoignable doit être écarté vite, pas après les 30 s par défaut de Hikari
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setPoolName("replica-" + i);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        // Spring Boot ne voit que le proxy ci-dessous : les pools sont rattachés aux métriques ici (hikaricp.*, tag pool)
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            MicrometerMetricsTrackerFactory metricsTrackerFactory = new MicrometerMetricsTrackerFactory(registry);
+            primary.setMetricsTrackerFactory(metricsTrackerFactory);
+            replicas.values().forEach(replica -> ((HikariDataSource) replica).setMetricsTrackerFactory(metricsTrackerFactory));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, retryInterval);
+    }
+
+    @Bean
+    public DataSource dataSource(@Qualifier("replicaRoutingDataSource") ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // Le cache de requêtes se croit à jour dès qu'aucune écriture n'a suivi la lecture : un résultat lu sur un
+    // réplica en retard y resterait valide jusqu'à la prochaine écriture sur la table. Il est donc désactivé
+    // avec des réplicas ; le cache d'entités, tenu à jour par les écritures elles-mêmes, reste actif.
+    @Bean
+    public HibernatePropertiesCustomizer disableQueryCacheWithReplicas() {
+        return properties -> properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${blog.datasource.replicas.read-your-writes-window:PT5S}") Duration window
+    ) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        // Avant OpenEntityManagerInViewInterceptor et toute transaction de la requête
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
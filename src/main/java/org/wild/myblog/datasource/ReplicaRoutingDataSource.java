@@ -0,0 +1,144 @@
+package org.wild.myblog.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envoie les transactions en lecture seule vers les réplicas (à tour de rôle) et tout le reste vers la primaire.
+ *
+ * Le choix se fait à l'obtention de la connexion physique : il faut donc placer cette source derrière un
+ * LazyConnectionDataSourceProxy, sans quoi la connexion serait prise avant que Spring ne marque la
+ * transaction en lecture seule.
+ *
+ * Un réplica qui refuse une connexion est écarté pendant retryInterval ; la lecture est reprise par le réplica
+ * suivant, ou par la primaire s'il n'en reste aucun. Passé ce délai, la lecture suivante sert de test.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long retryIntervalNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // System.nanoTime() jusqu'auquel le réplica est écarté ; 0 s'il est disponible
+        private volatile long downUntil;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private boolean isAvailable(long now) {
+            long until = downUntil;
+            return until == 0 || now - until >= 0;
+        }
+    }
+
+    /**
+     * @param replicas réplicas par nom, dans l'ordre de rotation
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration retryInterval) {
+        this.primary = primary;
+        this.retryIntervalNanos = retryInterval.toNanos();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.add(new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Replica replica = selectReplica();
+        return replica == null ? PRIMARY : replica.name;
+    }
+
+    private Replica selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadRouting.isPinnedToPrimary()) {
+            return null;
+        }
+        long now = System.nanoTime();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isAvailable(now)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        while (true) {
+            Replica replica = selectReplica();
+            if (replica == null) {
+                return primary.getConnection();
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                markUp(replica);
+                return connection;
+            } catch (SQLException e) {
+                // Le réplica est écarté : la boucle finit toujours par la primaire
+                markDown(replica, e);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Identifiants explicites : seule la primaire est concernée
+        return primary.getConnection(username, password);
+    }
+
+    private void markDown(Replica replica, SQLException cause) {
+        boolean wasUp = replica.downUntil == 0;
+        long until = System.nanoTime() + retryIntervalNanos;
+        replica.downUntil = until == 0 ? 1 : until;
+        if (wasUp) {
+            log.warn("Réplica {} indisponible, lectures redirigées pendant {} s : {}",
+                    replica.name, Duration.ofNanos(retryIntervalNanos).toSeconds(), cause.getMessage());
+        }
+    }
+
+    private void markUp(Replica replica) {
+        if (replica.downUntil != 0) {
+            replica.downUntil = 0;
+            log.info("Réplica {} de nouveau disponible", replica.name);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.wild.myblog.dto;
+
+import java.util.List;
+
+// Page d'une requête à facettes : les articles, leur nombre total et les compteurs par catégorie et par auteur
+public class ArticleQueryResultDTO extends CursorPageDTO<ArticleSummaryDTO> {
+
+    private int total;
+    private List<FacetCountDTO> categories;
+    private List<FacetCountDTO> authors;
+
+    public ArticleQueryResultDTO() {
+    }
+
+    public ArticleQueryResultDTO(List<ArticleSummaryDTO> items, int size, String nextCursor, int total, List<FacetCountDTO> categories, List<FacetCountDTO> authors) {
+        super(items, size, nextCursor);
+        this.total = total;
+        this.categories = categories;
+        this.authors = authors;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public List<FacetCountDTO> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<FacetCountDTO> categories) {
+        this.categories = categories;
+    }
+
+    public List<FacetCountDTO> getAuthors() {
+        return authors;
+    }
+
+    public void setAuthors(List<FacetCountDTO> authors) {
+        this.authors = authors;
+    }
+}
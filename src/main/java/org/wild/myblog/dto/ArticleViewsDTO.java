@@ -0,0 +1,31 @@
+package org.wild.myblog.dto;
+
+public class ArticleViewsDTO {
+
+    private ArticleSummaryDTO article;
+    private long views;
+
+    public ArticleViewsDTO() {
+    }
+
+    public ArticleViewsDTO(ArticleSummaryDTO article, long views) {
+        this.article = article;
+        this.views = views;
+    }
+
+    public ArticleSummaryDTO getArticle() {
+        return article;
+    }
+
+    public void setArticle(ArticleSummaryDTO article) {
+        this.article = article;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+}
@@ -0,0 +1,31 @@
+package org.wild.myblog.dto;
+
+public class BulkImportErrorDTO {
+
+    private int index;
+    private String message;
+
+    public BulkImportErrorDTO() {
+    }
+
+    public BulkImportErrorDTO(int index, String message) {
+        this.index = index;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
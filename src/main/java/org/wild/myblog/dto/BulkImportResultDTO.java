@@ -0,0 +1,35 @@
+package org.wild.myblog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportResultDTO {
+
+    private int received;
+    private int imported;
+    private List<BulkImportErrorDTO> errors = new ArrayList<>();
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public List<BulkImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BulkImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+}
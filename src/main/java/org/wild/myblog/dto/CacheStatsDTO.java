@@ -0,0 +1,59 @@
+package org.wild.myblog.dto;
+
+public class CacheStatsDTO {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate;
+    private long entries;
+    private long weightBytes;
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public void setEntries(long entries) {
+        this.entries = entries;
+    }
+
+    public long getWeightBytes() {
+        return weightBytes;
+    }
+
+    public void setWeightBytes(long weightBytes) {
+        this.weightBytes = weightBytes;
+    }
+}
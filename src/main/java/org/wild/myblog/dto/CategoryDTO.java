@@ -1,14 +1,10 @@
 package org.wild.myblog.dto;
 
-import org.wild.myblog.model.Article;
-
-import java.util.List;
-
 public class CategoryDTO {
 
     private Long id;
     private String name;
-    private List<ArticleDTO> articles;
+    private long articleCount;
 
     public Long getId() {
         return id;
@@ -26,11 +22,11 @@ public class CategoryDTO {
         this.name = name;
     }
 
-    public List<ArticleDTO> getArticles() {
-        return articles;
+    public long getArticleCount() {
+        return articleCount;
     }
 
-    public void setArticles(List<ArticleDTO> articles) {
-        this.articles = articles;
+    public void setArticleCount(long articleCount) {
+        this.articleCount = articleCount;
     }
 }
@@ -5,6 +5,8 @@ import java.util.List;
 public class ImageDTO {
     private Long id;
     private String url;
+    private String contentType;
+    private Long contentLength;
     private List<Long> articleIds;
 
     public Long getId() {
@@ -23,6 +25,22 @@ public class ImageDTO {
         this.url = url;
     }
 
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getContentLength() {
+        return contentLength;
+    }
+
+    public void setContentLength(Long contentLength) {
+        this.contentLength = contentLength;
+    }
+
     public List<Long> getArticleIds() {
         return articleIds;
     }
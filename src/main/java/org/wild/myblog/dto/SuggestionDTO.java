@@ -0,0 +1,42 @@
+package org.wild.myblog.dto;
+
+public class SuggestionDTO {
+
+    // "article" ou "author"
+    private String type;
+    private Long id;
+    private String label;
+
+    public SuggestionDTO() {
+    }
+
+    public SuggestionDTO(String type, Long id, String label) {
+        this.type = type;
+        this.id = id;
+        this.label = label;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+}
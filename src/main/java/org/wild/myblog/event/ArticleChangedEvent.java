@@ -0,0 +1,16 @@
+package org.wild.myblog.event;
+
+import org.wild.myblog.model.Article;
+
+/**
+ * Publié par les chemins d'écriture des articles une fois l'article enregistré (ou supprimé).
+ * Les index et caches en mémoire s'y abonnent plutôt que d'être appelés un par un par les contrôleurs.
+ */
+public record ArticleChangedEvent(Type type, Article article) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
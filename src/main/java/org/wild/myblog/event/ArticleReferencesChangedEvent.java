@@ -0,0 +1,10 @@
+package org.wild.myblog.event;
+
+import java.util.Set;
+
+/**
+ * Publié quand une catégorie, un auteur ou une image a changé : les articles listés
+ * n'ont pas été modifiés eux-mêmes, mais leur représentation (nom de catégorie, auteurs, images) l'a été.
+ */
+public record ArticleReferencesChangedEvent(Set<Long> articleIds) {
+}
@@ -0,0 +1,16 @@
+package org.wild.myblog.event;
+
+import org.wild.myblog.model.Author;
+
+/**
+ * Publié par les chemins d'écriture des auteurs une fois l'auteur enregistré (ou supprimé). Les articles liés
+ * sont signalés à part, par ArticleReferencesChangedEvent.
+ */
+public record AuthorChangedEvent(Type type, Author author) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,248 @@
+package org.wild.myblog.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.mapper.ArticleMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Diffusion en Server-Sent Events (GET /articles/stream) des articles créés, modifiés ou supprimés.
+ *
+ * Chaque événement est sérialisé une seule fois, trame SSE complète comprise, et les mêmes octets sont
+ * placés dans la file de chaque abonné. Ces files sont bornées : un client qui ne lit pas assez vite pour
+ * suivre est déconnecté plutôt que de faire grossir la mémoire ; il se reconnecte avec Last-Event-ID.
+ * L'écriture sur le réseau se fait hors du thread qui publie, sur un thread virtuel par abonné qui a des
+ * trames en attente : un client lent ne bloque que le sien.
+ *
+ * Les derniers événements sont gardés pour la reprise : un client qui revient avec un Last-Event-ID encore
+ * connu reçoit ceux qu'il a manqués, sinon un événement "reset" (relire GET /articles/latest).
+ */
+@Component
+public class ArticleEventBroadcaster implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleEventBroadcaster.class);
+
+    static final String RESET_EVENT = "reset";
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = frame(":\n\n");
+
+    private record Event(long sequence, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new ArrayBlockingQueue<>(clientBuffer);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private void deliver(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (!pending.offer(frame)) {
+                evict(this);
+                return;
+            }
+            startDraining();
+        }
+
+        private void startDraining() {
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                    while ((frame = pending.poll()) != null) {
+                        emitter.send(frame);
+                    }
+                    draining.set(false);
+                    // Une trame arrivée entre le dernier poll() et la ligne précédente n'a pas relancé d'écriture
+                    if (pending.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client parti : Spring termine la requête de lui-même
+                subscribers.remove(this);
+            }
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final int clientBuffer;
+    private final int replaySize;
+    // Préfixe des identifiants d'événements : une reprise après redémarrage est reconnue et répondue par "reset"
+    private final String streamId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Sérialise les publications et les abonnements : un nouvel abonné ne manque ni ne reçoit deux fois un événement
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final ArrayDeque<Event> replay = new ArrayDeque<>();
+    private final ExecutorService writers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("article-stream-", 0).factory());
+    private final Counter evictions;
+    private long sequence;
+
+    public ArticleEventBroadcaster(
+            ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${blog.article-stream.timeout:PT30M}") Duration timeout,
+            @Value("${blog.article-stream.client-buffer:256}") int clientBuffer,
+            @Value("${blog.article-stream.replay-size:1024}") int replaySize
+    ) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.clientBuffer = clientBuffer;
+        this.replaySize = replaySize;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("blog.article-stream.subscribers", subscribers, Set::size).register(registry);
+            this.evictions = Counter.builder("blog.article-stream.evictions").description("Clients trop lents déconnectés").register(registry);
+        } else {
+            this.evictions = null;
+        }
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        Subscriber subscriber = new Subscriber();
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+
+        publishLock.lock();
+        try {
+            if (lastEventId != null) {
+                replayAfter(subscriber, lastEventId);
+            }
+            // Trame vide : les en-têtes partent tout de suite, sans attendre le premier événement. Placée avant
+            // l'abonnement et seulement si rien n'est rejoué, elle ne prend pas la place d'un événement publié ensuite
+            if (subscriber.pending.isEmpty()) {
+                subscriber.pending.offer(HEARTBEAT);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            publishLock.unlock();
+        }
+        subscriber.startDraining();
+        return subscriber.emitter;
+    }
+
+    private void replayAfter(Subscriber subscriber, String lastEventId) {
+        Long lastSequence = parseSequence(lastEventId);
+        long missed = lastSequence == null ? -1 : sequence - lastSequence;
+        Event oldest = replay.peekFirst();
+        // Reprise impossible : identifiant d'un autre démarrage, plus gardé, ou trop d'événements manqués pour la file.
+        // Au moins une place reste libre pour l'événement qui serait publié juste après l'abonnement.
+        boolean resumable = missed >= 0 && missed < clientBuffer
+                && (missed == 0 || (oldest != null && oldest.sequence() <= lastSequence + 1));
+        if (!resumable) {
+            subscriber.pending.offer(frame("event: " + RESET_EVENT + "\ndata: {}\n\n"));
+            return;
+        }
+        for (Event event : replay) {
+            if (event.sequence() > lastSequence) {
+                subscriber.pending.offer(event.frame());
+            }
+        }
+    }
+
+    private Long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(streamId)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Object data = event.type() == ArticleChangedEvent.Type.DELETED
+                ? Map.of("id", event.article().getId())
+                : ArticleMapper.toSummaryDTO(event.article());
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.warn("Événement non diffusé pour l'article {}", event.article().getId(), e);
+            return;
+        }
+        String name = event.type().name().toLowerCase(Locale.ROOT);
+        publishLock.lock();
+        try {
+            long eventSequence = ++sequence;
+            Event published = new Event(eventSequence, frame("id: " + streamId + "-" + eventSequence + "\nevent: " + name + "\ndata: " + json + "\n\n"));
+            replay.addLast(published);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.deliver(published.frame());
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    // Garde les connexions ouvertes à travers les proxys, et détecte les clients partis
+    @Scheduled(fixedRateString = "${blog.article-stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.deliver(HEARTBEAT);
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            if (evictions != null) {
+                evictions.increment();
+            }
+            // complete() attend la fin d'un send() en cours : jamais sur le thread qui publie
+            writers.execute(subscriber.emitter::complete);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        writers.shutdown();
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> frame(String text) {
+        // Écrit tel quel par ByteArrayHttpMessageConverter, sans nouvelle sérialisation par abonné
+        return Set.of(new ResponseBodyEmitter.DataWithMediaType(text.getBytes(StandardCharsets.UTF_8), MediaType.TEXT_EVENT_STREAM));
+    }
+}
@@ -0,0 +1,156 @@
+package org.wild.myblog.feed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.event.ArticleReferencesChangedEvent;
+import org.wild.myblog.mapper.ArticleMapper;
+import org.wild.myblog.model.Article;
+import org.wild.myblog.pagination.ArticleCursor;
+import org.wild.myblog.repository.ArticleRepository;
+import org.wild.myblog.web.ResourceVersion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Les N articles les plus récents, prêts à servir par GET /articles/latest sans requête SQL.
+ *
+ * Chaque écriture construit un nouveau {@link LatestArticlesSnapshot} immuable et le publie par une
+ * écriture volatile : les lecteurs ne prennent aucun verrou et voient toujours un instantané complet.
+ * Les écritures, elles, sont sérialisées par un verrou (ReentrantLock plutôt que synchronized, pour ne pas
+ * épingler de thread virtuel pendant un rechargement depuis la base).
+ *
+ * Création et modification d'un article sont appliquées directement sur l'instantané courant ; une
+ * suppression, ou une modification de catégorie, d'auteur ou d'image touchant un article affiché,
+ * recharge l'instantané depuis la base pour qu'il reste plein et à jour.
+ */
+@Component
+public class LatestArticlesFeed implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(LatestArticlesFeed.class);
+
+    private static final Comparator<LatestArticlesSnapshot.Entry> NEWEST_FIRST = Comparator
+            .comparing((LatestArticlesSnapshot.Entry entry) -> entry.position().createdAt())
+            .thenComparing(entry -> entry.position().id())
+            .reversed();
+
+    private final ArticleRepository articleRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int capacity;
+    private final int defaultPageSize;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicLong generations = new AtomicLong();
+    private volatile LatestArticlesSnapshot snapshot;
+
+    public LatestArticlesFeed(
+            ArticleRepository articleRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${blog.latest-feed.capacity:50}") int capacity,
+            @Value("${blog.latest-feed.page-size:5}") int defaultPageSize
+    ) {
+        this.articleRepository = articleRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Appelé aussi après le commit d'une écriture : transaction propre plutôt que celle qui vient de se terminer
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.capacity = capacity;
+        this.defaultPageSize = Math.min(defaultPageSize, capacity);
+        this.snapshot = publish(List.of());
+    }
+
+    public LatestArticlesSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int defaultPageSize() {
+        return defaultPageSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    public void reload() {
+        writeLock.lock();
+        try {
+            List<LatestArticlesSnapshot.Entry> entries = readOnlyTransaction.execute(status ->
+                    articleRepository.findPageBefore(ArticleCursor.START.createdAt(), ArticleCursor.START.id(), Limit.of(capacity))
+                            .stream().map(LatestArticlesFeed::toEntry).toList());
+            snapshot = publish(entries);
+            log.debug("Fil des derniers articles rechargé : {} article(s)", entries.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Article article = event.article();
+        if (event.type() == ArticleChangedEvent.Type.DELETED) {
+            if (snapshot.contains(article.getId())) {
+                reload();
+            }
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            LatestArticlesSnapshot current = snapshot;
+            LatestArticlesSnapshot.Entry entry = toEntry(article);
+            boolean displayed = current.contains(article.getId());
+            // Un article plus ancien que le dernier affiché n'entre pas dans un fil déjà plein
+            if (!displayed && current.entries().size() == capacity
+                    && NEWEST_FIRST.compare(entry, current.entries().get(capacity - 1)) > 0) {
+                return;
+            }
+            List<LatestArticlesSnapshot.Entry> entries = new ArrayList<>(current.entries().size() + 1);
+            for (LatestArticlesSnapshot.Entry existing : current.entries()) {
+                if (!existing.position().id().equals(article.getId())) {
+                    entries.add(existing);
+                }
+            }
+            entries.add(entry);
+            entries.sort(NEWEST_FIRST);
+            snapshot = publish(entries.size() > capacity ? entries.subList(0, capacity) : entries);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleReferencesChanged(ArticleReferencesChangedEvent event) {
+        LatestArticlesSnapshot current = snapshot;
+        if (event.articleIds().stream().anyMatch(current::contains)) {
+            reload();
+        }
+    }
+
+    private LatestArticlesSnapshot publish(List<LatestArticlesSnapshot.Entry> entries) {
+        // Date de publication et numéro de génération : l'ETag change à chaque nouvel instantané
+        LocalDateTime publishedAt = LocalDateTime.now();
+        return new LatestArticlesSnapshot(List.copyOf(entries), ResourceVersion.of(publishedAt, generations.incrementAndGet()));
+    }
+
+    private static LatestArticlesSnapshot.Entry toEntry(Article article) {
+        return new LatestArticlesSnapshot.Entry(ArticleCursor.of(article), ArticleMapper.toDTO(article), ArticleMapper.toSummaryDTO(article));
+    }
+}
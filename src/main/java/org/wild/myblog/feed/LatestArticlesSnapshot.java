@@ -0,0 +1,35 @@
+package org.wild.myblog.feed;
+
+import org.wild.myblog.dto.ArticleDTO;
+import org.wild.myblog.dto.ArticleSummaryDTO;
+import org.wild.myblog.pagination.ArticleCursor;
+import org.wild.myblog.web.ResourceVersion;
+
+import java.util.List;
+
+/**
+ * État publié par {@link LatestArticlesFeed} : articles du plus récent au plus ancien, jamais modifié
+ * après construction. Les DTO qu'il contient sont partagés entre les requêtes et ne doivent pas être modifiés.
+ */
+public record LatestArticlesSnapshot(List<Entry> entries, ResourceVersion version) {
+
+    public record Entry(ArticleCursor position, ArticleDTO article, ArticleSummaryDTO summary) {
+    }
+
+    public boolean contains(Long articleId) {
+        for (Entry entry : entries) {
+            if (entry.position().id().equals(articleId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<ArticleDTO> articles(int limit) {
+        return entries.stream().limit(limit).map(Entry::article).toList();
+    }
+
+    public List<ArticleSummaryDTO> summaries(int limit) {
+        return entries.stream().limit(limit).map(Entry::summary).toList();
+    }
+}
@@ -0,0 +1,37 @@
+package org.wild.myblog.feed;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Flux RSS et Atom d'une même liste d'articles, déjà rendus et encodés : servis tels quels, sans copie.
+ *
+ * articleIds sert à l'invalidation (voir SyndicationFeedCache), lastModified à l'en-tête Last-Modified.
+ */
+public record SyndicationFeed(Set<Long> articleIds, long lastModified, Map<Format, Body> bodies) {
+
+    public enum Format {
+        RSS("application/rss+xml"),
+        ATOM("application/atom+xml");
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+    }
+
+    /**
+     * XML en UTF-8, le même compressé en gzip, et un ETag propre à chacune des deux représentations.
+     */
+    public record Body(byte[] xml, String etag, byte[] gzipped, String gzippedEtag) {
+    }
+
+    public Body body(Format format) {
+        return bodies.get(format);
+    }
+}
@@ -0,0 +1,199 @@
+package org.wild.myblog.feed;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.wild.myblog.datasource.ReadRouting;
+import org.wild.myblog.dto.ArticleSummaryDTO;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.event.ArticleReferencesChangedEvent;
+import org.wild.myblog.mapper.ArticleSummaryMapper;
+import org.wild.myblog.model.Article;
+import org.wild.myblog.model.ArticleAuthor;
+import org.wild.myblog.model.Author;
+import org.wild.myblog.model.Category;
+import org.wild.myblog.pagination.ArticleCursor;
+import org.wild.myblog.repository.ArticleRepository;
+import org.wild.myblog.repository.ArticleSummary;
+import org.wild.myblog.repository.AuthorRepository;
+import org.wild.myblog.repository.CategoryRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+
+/**
+ * Flux RSS/Atom rendus, du blog entier, d'une catégorie ou d'un auteur, servis par FeedController.
+ *
+ * Un flux est rendu à la première demande puis gardé jusqu'à ce qu'un article qui y figure ou qui pourrait
+ * y entrer change ; le TTL ne sert que de filet (nom d'une catégorie sans article, par exemple). Les demandes
+ * concurrentes d'un flux absent attendent un rendu unique : le Future est placé dans le cache avant le rendu,
+ * qui se fait hors du verrou de Caffeine (voir ArticleDTOCache pour les threads virtuels).
+ */
+@Component
+public class SyndicationFeedCache {
+
+    public enum Scope {
+        BLOG,
+        CATEGORY,
+        AUTHOR
+    }
+
+    private record Key(Scope scope, Long id) {
+    }
+
+    private final ArticleRepository articleRepository;
+    private final CategoryRepository categoryRepository;
+    private final AuthorRepository authorRepository;
+    private final ArticleSummaryMapper articleSummaryMapper;
+    private final SyndicationFeedRenderer renderer;
+    private final TransactionTemplate primaryReadTransaction;
+    private final String blogName;
+    private final int size;
+    private final AsyncCache<Key, SyndicationFeed> cache;
+
+    public SyndicationFeedCache(
+            ArticleRepository articleRepository,
+            CategoryRepository categoryRepository,
+            AuthorRepository authorRepository,
+            ArticleSummaryMapper articleSummaryMapper,
+            SyndicationFeedRenderer renderer,
+            PlatformTransactionManager transactionManager,
+            @Value("${spring.application.name:Blog}") String blogName,
+            @Value("${blog.feeds.size:20}") int size,
+            @Value("${blog.feeds.cache-size:1000}") long cacheSize,
+            @Value("${blog.feeds.ttl:PT1H}") Duration ttl
+    ) {
+        this.articleRepository = articleRepository;
+        this.categoryRepository = categoryRepository;
+        this.authorRepository = authorRepository;
+        this.articleSummaryMapper = articleSummaryMapper;
+        this.renderer = renderer;
+        // Gardé jusqu'à la prochaine écriture : lu sur la primaire, dans sa propre transaction (voir ArticleController)
+        this.primaryReadTransaction = new TransactionTemplate(transactionManager);
+        this.primaryReadTransaction.setReadOnly(true);
+        this.primaryReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blogName = blogName;
+        this.size = size;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    /**
+     * @return le flux rendu, ou null si la catégorie ou l'auteur n'existe pas
+     */
+    public SyndicationFeed get(Scope scope, Long id) {
+        Key key = new Key(scope, scope == Scope.BLOG ? null : id);
+        CompletableFuture<SyndicationFeed> rendering = new CompletableFuture<>();
+        CompletableFuture<SyndicationFeed> feed = cache.get(key, (k, executor) -> rendering);
+        if (feed == rendering) {
+            try {
+                // Un résultat null n'est pas gardé par Caffeine
+                rendering.complete(ReadRouting.onPrimary(() -> primaryReadTransaction.execute(status -> render(key))));
+            } catch (RuntimeException e) {
+                rendering.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return feed.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private SyndicationFeed render(Key key) {
+        ArticleCursor start = ArticleCursor.START;
+        Limit limit = Limit.of(size);
+        SyndicationFeedRenderer.Channel channel;
+        List<ArticleSummary> summaries;
+        switch (key.scope()) {
+            case CATEGORY -> {
+                Category category = categoryRepository.findById(key.id()).orElse(null);
+                if (category == null) {
+                    return null;
+                }
+                channel = new SyndicationFeedRenderer.Channel(blogName + " - " + category.getName(),
+                        "Derniers articles de la catégorie " + category.getName(), "/feeds/categories/" + key.id());
+                summaries = articleRepository.findSummaryByCategoryIdPageBefore(key.id(), start.createdAt(), start.id(), limit);
+            }
+            case AUTHOR -> {
+                Author author = authorRepository.findById(key.id()).orElse(null);
+                if (author == null) {
+                    return null;
+                }
+                String name = author.getFirstname() + " " + author.getLastname();
+                channel = new SyndicationFeedRenderer.Channel(blogName + " - " + name,
+                        "Derniers articles de " + name, "/feeds/authors/" + key.id());
+                summaries = articleRepository.findSummaryByAuthorIdPageBefore(key.id(), start.createdAt(), start.id(), limit);
+            }
+            default -> {
+                channel = new SyndicationFeedRenderer.Channel(blogName, "Derniers articles de " + blogName, "/feeds");
+                summaries = articleRepository.findSummaryPageBefore(start.createdAt(), start.id(), limit);
+            }
+        }
+        List<ArticleSummaryDTO> summaryDTOs = articleSummaryMapper.toDTOs(summaries);
+        List<SyndicationFeedRenderer.Item> items = new ArrayList<>(summaries.size());
+        for (int i = 0; i < summaries.size(); i++) {
+            ArticleSummary summary = summaries.get(i);
+            items.add(new SyndicationFeedRenderer.Item(summary.getId(), summary.getTitle(), summary.getExcerpt(),
+                    summary.getCreatedAt(), summary.getUpdatedAt(), summary.getCategoryName(), summaryDTOs.get(i).getAuthorNames()));
+        }
+        return renderer.render(channel, items);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Article article = event.article();
+        List<Key> entering = new ArrayList<>();
+        if (event.type() != ArticleChangedEvent.Type.DELETED) {
+            // Flux où l'article apparaît désormais, en plus de ceux où il figurait déjà
+            entering.add(new Key(Scope.BLOG, null));
+            if (article.getCategory() != null) {
+                entering.add(new Key(Scope.CATEGORY, article.getCategory().getId()));
+            }
+            if (article.getArticleAuthors() != null) {
+                for (ArticleAuthor articleAuthor : article.getArticleAuthors()) {
+                    if (articleAuthor.getAuthor() != null) {
+                        entering.add(new Key(Scope.AUTHOR, articleAuthor.getAuthor().getId()));
+                    }
+                }
+            }
+        }
+        cache.synchronous().invalidateAll(entering);
+        invalidateContaining(List.of(article.getId()), key -> false);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleReferencesChanged(ArticleReferencesChangedEvent event) {
+        // Seuls les liens auteur-article changent la composition d'un flux sans passer par ArticleChangedEvent,
+        // et l'événement ne dit pas de quel auteur il s'agit : tous les flux d'auteur sont rendus à nouveau
+        invalidateContaining(event.articleIds(), key -> key.scope() == Scope.AUTHOR);
+    }
+
+    private void invalidateContaining(Collection<Long> articleIds, Predicate<Key> alsoInvalidate) {
+        cache.asMap().forEach((key, feed) -> {
+            // Un rendu en cours a pu lire l'état d'avant l'écriture
+            boolean stale = !feed.isDone() || alsoInvalidate.test(key);
+            if (!stale && !feed.isCompletedExceptionally()) {
+                SyndicationFeed rendered = feed.join();
+                stale = rendered != null && articleIds.stream().anyMatch(rendered.articleIds()::contains);
+            }
+            if (stale) {
+                cache.asMap().remove(key, feed);
+            }
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package org.wild.myblog.feed;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.wild.myblog.web.ContentCoding;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rendu des flux RSS 2.0 et Atom en XML, écrit élément par élément avec StAX (aucun arbre DOM en mémoire),
+ * puis compressé une fois pour toutes en gzip.
+ */
+@Component
+public class SyndicationFeedRenderer {
+
+    private static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+
+    public record Channel(String title, String description, String path) {
+    }
+
+    public record Item(Long id, String title, String excerpt, LocalDateTime createdAt, LocalDateTime updatedAt,
+                       String categoryName, List<String> authorNames) {
+    }
+
+    private final XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
+    private final String baseUrl;
+    private final String blogName;
+
+    public SyndicationFeedRenderer(
+            @Value("${blog.feeds.base-url:http://localhost:8080}") String baseUrl,
+            @Value("${spring.application.name:Blog}") String blogName
+    ) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.blogName = blogName;
+    }
+
+    public SyndicationFeed render(Channel channel, List<Item> items) {
+        // Sans article, la date du flux est celle du rendu
+        LocalDateTime updated = items.stream().map(Item::updatedAt).filter(date -> date != null)
+                .max(LocalDateTime::compareTo).orElse(LocalDateTime.now());
+        Set<Long> articleIds = new LinkedHashSet<>();
+        items.forEach(item -> articleIds.add(item.id()));
+
+        Map<SyndicationFeed.Format, SyndicationFeed.Body> bodies = new EnumMap<>(SyndicationFeed.Format.class);
+        try {
+            bodies.put(SyndicationFeed.Format.RSS, encode(writeRss(channel, items, updated)));
+            bodies.put(SyndicationFeed.Format.ATOM, encode(writeAtom(channel, items, updated)));
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Rendu du flux " + channel.path() + " impossible", e);
+        }
+        return new SyndicationFeed(Set.copyOf(articleIds), updated.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), bodies);
+    }
+
+    private byte[] writeRss(Channel channel, List<Item> items, LocalDateTime updated) throws XMLStreamException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(4096);
+        XMLStreamWriter xml = outputFactory.createXMLStreamWriter(output, "UTF-8");
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeStartElement("rss");
+        xml.writeAttribute("version", "2.0");
+        xml.writeNamespace("atom", ATOM_NAMESPACE);
+        xml.writeStartElement("channel");
+        element(xml, "title", channel.title());
+        element(xml, "link", baseUrl + "/");
+        element(xml, "description", channel.description());
+        xml.writeEmptyElement("atom", "link", ATOM_NAMESPACE);
+        xml.writeAttribute("href", baseUrl + channel.path() + "/rss");
+        xml.writeAttribute("rel", "self");
+        xml.writeAttribute("type", SyndicationFeed.Format.RSS.mediaType());
+        element(xml, "lastBuildDate", rfc1123(updated));
+        for (Item item : items) {
+            String link = articleLink(item);
+            xml.writeStartElement("item");
+            element(xml, "title", item.title());
+            element(xml, "link", link);
+            xml.writeStartElement("guid");
+            xml.writeAttribute("isPermaLink", "true");
+            xml.writeCharacters(link);
+            xml.writeEndElement();
+            element(xml, "pubDate", rfc1123(item.createdAt()));
+            element(xml, "description", item.excerpt());
+            element(xml, "category", item.categoryName());
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.close();
+        return output.toByteArray();
+    }
+
+    private byte[] writeAtom(Channel channel, List<Item> items, LocalDateTime updated) throws XMLStreamException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(4096);
+        XMLStreamWriter xml = outputFactory.createXMLStreamWriter(output, "UTF-8");
+        String self = baseUrl + channel.path() + "/atom";
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeStartElement("feed");
+        xml.writeDefaultNamespace(ATOM_NAMESPACE);
+        element(xml, "title", channel.title());
+        element(xml, "subtitle", channel.description());
+        element(xml, "id", self);
+        element(xml, "updated", rfc3339(updated));
+        link(xml, "self", self);
+        link(xml, "alternate", baseUrl + "/");
+        // Auteur par défaut des entrées qui n'en ont pas, exigé par Atom
+        xml.writeStartElement("author");
+        element(xml, "name", blogName);
+        xml.writeEndElement();
+        for (Item item : items) {
+            String link = articleLink(item);
+            xml.writeStartElement("entry");
+            element(xml, "title", item.title());
+            element(xml, "id", link);
+            link(xml, "alternate", link);
+            element(xml, "published", rfc3339(item.createdAt()));
+            element(xml, "updated", rfc3339(item.updatedAt() != null ? item.updatedAt() : item.createdAt()));
+            element(xml, "summary", item.excerpt());
+            for (String authorName : item.authorNames()) {
+                xml.writeStartElement("author");
+                element(xml, "name", authorName);
+                xml.writeEndElement();
+            }
+            if (item.categoryName() != null) {
+                xml.writeEmptyElement("category");
+                xml.writeAttribute("term", item.categoryName());
+            }
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.close();
+        return output.toByteArray();
+    }
+
+    private String articleLink(Item item) {
+        return baseUrl + "/articles/" + item.id();
+    }
+
+    // Un élément sans valeur est omis plutôt qu'écrit vide
+    private static void element(XMLStreamWriter xml, String name, String value) throws XMLStreamException {
+        if (value == null) {
+            return;
+        }
+        xml.writeStartElement(name);
+        xml.writeCharacters(value);
+        xml.writeEndElement();
+    }
+
+    private static void link(XMLStreamWriter xml, String rel, String href) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("rel", rel);
+        xml.writeAttribute("href", href);
+    }
+
+    private static String rfc1123(LocalDateTime dateTime) {
+        return dateTime == null ? null : DateTimeFormatter.RFC_1123_DATE_TIME.format(dateTime.atZone(ZoneId.systemDefault()));
+    }
+
+    private static String rfc3339(LocalDateTime dateTime) {
+        return dateTime == null ? null : DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime.atZone(ZoneId.systemDefault()).withNano(0));
+    }
+
+    private static SyndicationFeed.Body encode(byte[] xml) {
+        String hash = DigestUtils.md5DigestAsHex(xml);
+        return new SyndicationFeed.Body(xml, "\"" + hash + "\"", ContentCoding.gzip(xml), "\"" + hash + "-gzip\"");
+    }
+}
@@ -0,0 +1,25 @@
+package org.wild.myblog.jdbc;
+
+/**
+ * Compteurs de la requête HTTP en cours sur ce thread ; null hors requête (démarrage, export asynchrone...),
+ * auquel cas rien n'est compté.
+ */
+public final class QueryAccounting {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private QueryAccounting() {
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    static void start(QueryStats stats) {
+        CURRENT.set(stats);
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,67 @@
+package org.wild.myblog.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Comptage des requêtes SQL par requête HTTP : proxy JDBC autour de la DataSource de l'application,
+ * filtre qui ouvre et publie les compteurs, intercepteur qui applique les @QueryBudget.
+ */
+@Configuration
+public class QueryAccountingConfig implements WebMvcConfigurer {
+
+    // Statique : un BeanPostProcessor doit exister avant la création de la DataSource
+    @Bean
+    public static BeanPostProcessor queryAccountingDataSourceProxy(
+            @Value("${blog.query-accounting.reject-over-budget:false}") boolean rejectOverBudget,
+            @Value("${blog.query-accounting.count-rows:false}") boolean countRows
+    ) {
+        QueryAccountingListener listener = new QueryAccountingListener(rejectOverBudget);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Seule la DataSource injectée dans JPA et JdbcTemplate : les sources internes (réplicas) passent par elle
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(listener);
+                if (countRows) {
+                    // Chaque appel JDBC, jusqu'à chaque ResultSet.next(), passe alors par le proxy : développement et tests
+                    builder.methodListener(listener).proxyResultSet();
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryAccountingFilter> queryAccountingFilter(
+            @Value("${blog.query-accounting.budget:30}") int budget,
+            @Value("${blog.query-accounting.headers:false}") boolean headers,
+            @Value("${blog.query-accounting.count-rows:false}") boolean countRows,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        FilterRegistrationBean<QueryAccountingFilter> registration = new FilterRegistrationBean<>(new QueryAccountingFilter(budget, headers, countRows, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor());
+    }
+}
@@ -0,0 +1,158 @@
+package org.wild.myblog.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compte les ordres SQL, les lignes lues et le temps JDBC de chaque requête HTTP.
+ *
+ * Les chiffres sont publiés en métriques (blog.request.sql.*, par route) et, si blog.query-accounting.headers
+ * est activé, en en-têtes de réponse. Une requête qui dépasse son budget est journalisée ; avec
+ * blog.query-accounting.reject-over-budget, l'ordre en trop échoue et la requête avec lui.
+ *
+ * Les lignes lues ne sont comptées (métrique blog.request.sql.rows, en-tête X-Query-Rows) qu'avec
+ * blog.query-accounting.count-rows, qui fait passer chaque appel sur les ResultSet par le proxy JDBC.
+ */
+public class QueryAccountingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryAccountingFilter.class);
+
+    public static final String STATEMENTS_HEADER = "X-Query-Count";
+    public static final String ROWS_HEADER = "X-Query-Rows";
+    public static final String JDBC_TIME_HEADER = "X-Query-Time-Ms";
+
+    private final int defaultBudget;
+    private final boolean headers;
+    private final boolean countRows;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public QueryAccountingFilter(int defaultBudget, boolean headers, boolean countRows, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.defaultBudget = defaultBudget;
+        this.headers = headers;
+        this.countRows = countRows;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        QueryStats stats = new QueryStats(defaultBudget);
+        QueryHeadersResponse headersResponse = headers ? new QueryHeadersResponse(response, stats, countRows) : null;
+        QueryAccounting.start(stats);
+        try {
+            filterChain.doFilter(request, headersResponse != null ? headersResponse : response);
+        } finally {
+            QueryAccounting.stop();
+            if (headersResponse != null) {
+                // Réponses sans corps (204, 304) : les en-têtes n'ont pas encore été posés
+                headersResponse.writeHeaders();
+            }
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        if (stats.isOverBudget()) {
+            log.warn("{} {} : {} ordres SQL pour un budget de {} ({} lignes, {} ms JDBC)", request.getMethod(), uri,
+                    stats.getStatements(), stats.getBudget(), countRows ? stats.getRows() : "?",
+                    TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()));
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+        DistributionSummary.builder("blog.request.sql.statements").baseUnit("statements").tags(tags).register(registry)
+                .record(stats.getStatements());
+        if (countRows) {
+            DistributionSummary.builder("blog.request.sql.rows").baseUnit("rows").tags(tags).register(registry)
+                    .record(stats.getRows());
+        }
+        Timer.builder("blog.request.sql.time").tags(tags).register(registry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Pose les en-têtes juste avant l'écriture du corps : le contrôleur a alors fait toutes ses requêtes,
+     * et la réponse n'est pas encore envoyée.
+     */
+    private static final class QueryHeadersResponse extends HttpServletResponseWrapper {
+
+        private final QueryStats stats;
+        private final boolean countRows;
+        private boolean headersWritten;
+
+        private QueryHeadersResponse(HttpServletResponse response, QueryStats stats, boolean countRows) {
+            super(response);
+            this.stats = stats;
+            this.countRows = countRows;
+        }
+
+        private void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            setHeader(STATEMENTS_HEADER, Integer.toString(stats.getStatements()));
+            if (countRows) {
+                setHeader(ROWS_HEADER, Long.toString(stats.getRows()));
+            }
+            setHeader(JDBC_TIME_HEADER, String.format(Locale.ROOT, "%.3f", stats.getJdbcNanos() / 1_000_000.0));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
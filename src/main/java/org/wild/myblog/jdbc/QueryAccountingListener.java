@@ -0,0 +1,67 @@
+package org.wild.myblog.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Écoute le proxy JDBC (datasource-proxy) et alimente les compteurs de la requête en cours.
+ *
+ * Un lot JDBC compte pour un ordre : c'est un seul aller-retour avec la base. Le temps mesuré est celui
+ * de l'exécution dans le driver, hors lecture des lignes. Les lignes ne sont comptées que si le listener est aussi
+ * enregistré pour les appels de méthodes (blog.query-accounting.count-rows).
+ */
+class QueryAccountingListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String START_NANOS = "queryAccounting.startNanos";
+
+    private final boolean rejectOverBudget;
+
+    QueryAccountingListener(boolean rejectOverBudget) {
+        this.rejectOverBudget = rejectOverBudget;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryStats stats = QueryAccounting.current();
+        if (stats == null) {
+            return;
+        }
+        if (rejectOverBudget && stats.getStatements() >= stats.getBudget()) {
+            throw new QueryBudgetExceededException(stats.getBudget());
+        }
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryStats stats = QueryAccounting.current();
+        if (stats == null) {
+            return;
+        }
+        Long startNanos = execInfo.getCustomValue(START_NANOS, Long.class);
+        stats.recordStatement(startNanos == null ? 0 : System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        // Une ligne lue = un ResultSet.next() qui renvoie true
+        if (Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())
+                && executionContext.getTarget() instanceof ResultSet) {
+            QueryStats stats = QueryAccounting.current();
+            if (stats != null) {
+                stats.recordRow();
+            }
+        }
+    }
+}
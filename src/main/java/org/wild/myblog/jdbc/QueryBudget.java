@@ -0,0 +1,19 @@
+package org.wild.myblog.jdbc;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Nombre maximal d'ordres SQL pour une méthode de contrôleur, à la place de blog.query-accounting.budget.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    // Pour les traitements dont le nombre de requêtes suit la taille de l'entrée (import en masse)
+    int UNLIMITED = Integer.MAX_VALUE;
+
+    int value();
+}
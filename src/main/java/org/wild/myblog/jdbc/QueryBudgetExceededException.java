@@ -0,0 +1,15 @@
+package org.wild.myblog.jdbc;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Levée avant l'ordre SQL qui dépasserait le budget de la requête, quand les dépassements sont refusés.
+ */
+@ResponseStatus(value = HttpStatus.INTERNAL_SERVER_ERROR, reason = "SQL statement budget exceeded")
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(int budget) {
+        super("SQL statement budget of " + budget + " exceeded for this request");
+    }
+}
@@ -0,0 +1,24 @@
+package org.wild.myblog.jdbc;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applique le @QueryBudget de la méthode de contrôleur appelée, avant toute requête SQL de celle-ci.
+ */
+class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStats stats = QueryAccounting.current();
+        if (stats != null && handler instanceof HandlerMethod handlerMethod) {
+            QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+            if (budget != null) {
+                stats.setBudget(budget.value());
+            }
+        }
+        return true;
+    }
+}
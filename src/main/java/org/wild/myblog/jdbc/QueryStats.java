@@ -0,0 +1,50 @@
+package org.wild.myblog.jdbc;
+
+/**
+ * Compteurs JDBC d'une requête HTTP : ordres SQL exécutés, lignes lues et temps passé dans le driver.
+ * Mis à jour par le seul thread qui traite la requête.
+ */
+public final class QueryStats {
+
+    private int budget;
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+
+    QueryStats(int budget) {
+        this.budget = budget;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    void setBudget(int budget) {
+        this.budget = budget;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public boolean isOverBudget() {
+        return statements > budget;
+    }
+
+    void recordStatement(long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+    }
+
+    void recordRow() {
+        rows++;
+    }
+}
@@ -0,0 +1,65 @@
+package org.wild.myblog.mapper;
+
+import org.wild.myblog.dto.ArticleDTO;
+import org.wild.myblog.dto.ArticleSummaryDTO;
+import org.wild.myblog.dto.AuthorDTO;
+import org.wild.myblog.model.Article;
+import org.wild.myblog.model.ArticleAuthor;
+import org.wild.myblog.model.Image;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Conversion Article -> ArticleDTO, appelée pour chaque article renvoyé par l'API.
+ * Mesurée par ArticleMappingBenchmark (profil Maven jmh).
+ */
+public final class ArticleMapper {
+
+    private ArticleMapper() {
+    }
+
+    public static ArticleDTO toDTO(Article article) {
+        ArticleDTO articleDTO = new ArticleDTO();
+        articleDTO.setId(article.getId());
+        articleDTO.setTitle(article.getTitle());
+        articleDTO.setContent(article.getContent());
+        articleDTO.setUpdatedAt(article.getUpdatedAt());
+        if (article.getCategory() != null) {
+            articleDTO.setCategoryName(article.getCategory().getName());
+        }
+        // Listes vides plutôt que null : un article juste créé doit s'afficher comme un article relu en base
+        articleDTO.setImageUrls(article.getImages() == null ? List.of() : article.getImages().stream().map(Image::getUrl).toList());
+        articleDTO.setAuthors(article.getArticleAuthors() == null ? List.of() : article.getArticleAuthors().stream()
+                .filter(articleAuthor -> articleAuthor.getAuthor() != null)
+                .map(ArticleMapper::toAuthorDTO)
+                .collect(Collectors.toList())
+        );
+        return articleDTO;
+    }
+
+    // Pour un article déjà chargé ; les pages de résumés passent par des projections (ArticleSummary)
+    public static ArticleSummaryDTO toSummaryDTO(Article article) {
+        ArticleSummaryDTO summaryDTO = new ArticleSummaryDTO();
+        summaryDTO.setId(article.getId());
+        summaryDTO.setTitle(article.getTitle());
+        summaryDTO.setExcerpt(article.getExcerpt());
+        summaryDTO.setUpdatedAt(article.getUpdatedAt());
+        if (article.getCategory() != null) {
+            summaryDTO.setCategoryName(article.getCategory().getName());
+        }
+        summaryDTO.setAuthorNames(article.getArticleAuthors() == null ? List.of() : article.getArticleAuthors().stream()
+                .filter(articleAuthor -> articleAuthor.getAuthor() != null)
+                .map(articleAuthor -> articleAuthor.getAuthor().getFirstname() + " " + articleAuthor.getAuthor().getLastname())
+                .toList());
+        return summaryDTO;
+    }
+
+    private static AuthorDTO toAuthorDTO(ArticleAuthor articleAuthor) {
+        AuthorDTO authorDTO = new AuthorDTO();
+        authorDTO.setId(articleAuthor.getAuthor().getId());
+        authorDTO.setFirstname(articleAuthor.getAuthor().getFirstname());
+        authorDTO.setLastname(articleAuthor.getAuthor().getLastname());
+        return authorDTO;
+    }
+}
@@ -0,0 +1,60 @@
+package org.wild.myblog.mapper;
+
+import org.springframework.stereotype.Component;
+import org.wild.myblog.dto.ArticleSummaryDTO;
+import org.wild.myblog.dto.CursorPageDTO;
+import org.wild.myblog.pagination.ArticleCursor;
+import org.wild.myblog.repository.ArticleAuthorName;
+import org.wild.myblog.repository.ArticleRepository;
+import org.wild.myblog.repository.ArticleSummary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversion des projections ArticleSummary en ArticleSummaryDTO. Contrairement à ArticleMapper, il faut
+ * une requête de plus (les noms d'auteurs), faite une seule fois pour toute la liste.
+ */
+@Component
+public class ArticleSummaryMapper {
+
+    private final ArticleRepository articleRepository;
+
+    public ArticleSummaryMapper(ArticleRepository articleRepository) {
+        this.articleRepository = articleRepository;
+    }
+
+    public List<ArticleSummaryDTO> toDTOs(List<? extends ArticleSummary> summaries) {
+        // Une seule requête pour les noms d'auteurs de toute la page
+        List<Long> articleIds = summaries.stream().map(ArticleSummary::getId).toList();
+        Map<Long, List<String>> authorNamesByArticleId = new HashMap<>();
+        if (!articleIds.isEmpty()) {
+            for (ArticleAuthorName authorName : articleRepository.findAuthorNamesByArticleIdIn(articleIds)) {
+                authorNamesByArticleId.computeIfAbsent(authorName.getArticleId(), articleId -> new ArrayList<>())
+                        .add(authorName.getFirstname() + " " + authorName.getLastname());
+            }
+        }
+        return summaries.stream().map(summary -> {
+            ArticleSummaryDTO summaryDTO = new ArticleSummaryDTO();
+            summaryDTO.setId(summary.getId());
+            summaryDTO.setTitle(summary.getTitle());
+            summaryDTO.setExcerpt(summary.getExcerpt());
+            summaryDTO.setUpdatedAt(summary.getUpdatedAt());
+            summaryDTO.setCategoryName(summary.getCategoryName());
+            summaryDTO.setAuthorNames(authorNamesByArticleId.getOrDefault(summary.getId(), List.of()));
+            return summaryDTO;
+        }).toList();
+    }
+
+    /**
+     * Page de résumés à partir de pageSize + 1 lignes : la ligne en trop indique seulement qu'une page suivante existe.
+     */
+    public CursorPageDTO<ArticleSummaryDTO> toPage(List<ArticleSummary> summaries, int pageSize) {
+        boolean hasNext = summaries.size() > pageSize;
+        List<ArticleSummary> pageSummaries = hasNext ? summaries.subList(0, pageSize) : summaries;
+        String nextCursor = hasNext ? ArticleCursor.of(pageSummaries.get(pageSize - 1)).encode() : null;
+        return new CursorPageDTO<>(toDTOs(pageSummaries), pageSize, nextCursor);
+    }
+}
@@ -0,0 +1,32 @@
+package org.wild.myblog.mapper;
+
+import org.wild.myblog.dto.CategoryDTO;
+import org.wild.myblog.model.Category;
+import org.wild.myblog.repository.CategoryArticleCount;
+
+/**
+ * Conversion vers CategoryDTO ; les articles ne sont pas repris, seulement leur nombre
+ * (voir GET /categories/{id}/articles pour la liste paginée).
+ * Mesurée par CategoryMappingBenchmark (profil Maven jmh).
+ */
+public final class CategoryMapper {
+
+    private CategoryMapper() {
+    }
+
+    public static CategoryDTO toDTO(CategoryArticleCount category) {
+        return toDTO(category.getId(), category.getName(), category.getArticleCount());
+    }
+
+    public static CategoryDTO toDTO(Category category, long articleCount) {
+        return toDTO(category.getId(), category.getName(), articleCount);
+    }
+
+    private static CategoryDTO toDTO(Long id, String name, long articleCount) {
+        CategoryDTO categoryDTO = new CategoryDTO();
+        categoryDTO.setId(id);
+        categoryDTO.setName(name);
+        categoryDTO.setArticleCount(articleCount);
+        return categoryDTO;
+    }
+}
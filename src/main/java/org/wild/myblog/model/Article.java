@@ -1,15 +1,29 @@
 package org.wild.myblog.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+// Servent la pagination par curseur, sur tous les articles et par catégorie
+@Table(indexes = {
+        @Index(name = "idx_article_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_article_category_created_at_id", columnList = "category_id, created_at, id")
+})
 public class Article {
 
+    public static final int EXCERPT_LENGTH = 200;
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Séquence allouée par blocs (pooled) : contrairement à IDENTITY, Hibernate connaît les ids avant l'INSERT
+    // et peut regrouper les insertions en lots JDBC. Voir IdSequenceAligner pour les bases existantes.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "article_seq")
+    @SequenceGenerator(name = "article_seq", sequenceName = "article_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, length = 50)
@@ -18,6 +32,10 @@ public class Article {
     @Column(columnDefinition = "TEXT")
     private String content;
 
+    // Début du contenu, recalculé à chaque écriture : les listes résumées n'ont jamais besoin de lire content
+    @Column(length = EXCERPT_LENGTH + 1)
+    private String excerpt;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -29,6 +47,8 @@ public class Article {
     private Category category;
 
     @ManyToMany
+    @BatchSize(size = 100) // initialise les images de toute une page d'articles en une seule requête
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "article-images") // ids des images, elles-mêmes en cache
     @JoinTable(
             name = "article_image", // nom de la table de jointure
             joinColumns = @JoinColumn(name = "article_id"), // la table de jointure contient une colonne article_id
@@ -37,6 +57,7 @@ public class Article {
     private List<Image> images;
 
     @OneToMany(mappedBy = "article")
+    @BatchSize(size = 100)
     private List<ArticleAuthor> articleAuthors;
 
     public Long getId() {
@@ -63,6 +84,30 @@ public class Article {
         this.content = content;
     }
 
+    public String getExcerpt() {
+        return this.excerpt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void refreshExcerpt() {
+        if (this.content == null) {
+            this.excerpt = null;
+            return;
+        }
+        String text = this.content.strip().replaceAll("\\s+", " ");
+        if (text.length() <= EXCERPT_LENGTH) {
+            this.excerpt = text;
+            return;
+        }
+        // Coupe sur le dernier espace pour ne pas tronquer un mot
+        int end = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        if (end <= 0) {
+            end = EXCERPT_LENGTH;
+        }
+        this.excerpt = text.substring(0, end) + "…";
+    }
+
     public LocalDateTime getCreatedAt() {
         return this.createdAt;
     }
@@ -6,7 +6,8 @@ import jakarta.persistence.*;
 public class ArticleAuthor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "article_author_seq")
+    @SequenceGenerator(name = "article_author_seq", sequenceName = "article_author_seq", allocationSize = Article.ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
@@ -0,0 +1,34 @@
+package org.wild.myblog.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Nombre de lectures d'un article, dans une table à part : les écritures régulières des compteurs ne touchent
+ * ni la ligne de l'article ni les résultats en cache qui en dépendent. Écrit par ArticleViewCounter.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_article_view_count_views", columnList = "views"))
+public class ArticleViewCount {
+
+    @Id
+    private Long articleId;
+
+    @Column(nullable = false)
+    private long views;
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public void setArticleId(Long articleId) {
+        this.articleId = articleId;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+}
@@ -1,10 +1,18 @@
 package org.wild.myblog.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author")
+@BatchSize(size = 100)
 public class Author {
 
     @Id
@@ -20,6 +28,9 @@ public class Author {
     @OneToMany(mappedBy = "author")
     private List<ArticleAuthor> articleAuthors;
 
+    // Renseigné à chaque écriture, sert à la validation des GET conditionnels (ETag / Last-Modified)
+    private LocalDateTime updatedAt;
+
     public Long getId() {
         return id;
     }
@@ -51,4 +62,15 @@ public class Author {
     public void setArticleAuthors(List<ArticleAuthor> articleAuthors) {
         this.articleAuthors = articleAuthors;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        // À la précision de la colonne : la valeur gardée dans le cache de second niveau doit être celle relue en base
+        this.updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
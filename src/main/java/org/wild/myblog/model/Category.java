@@ -2,10 +2,16 @@ package org.wild.myblog.model;
 
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 public class Category {
 
     @Id
@@ -18,6 +24,8 @@ public class Category {
     @OneToMany(mappedBy = "category")
     private List<Article> articles;
 
+    private LocalDateTime updatedAt;
+
     public Long getId() {
         return id;
     }
@@ -41,4 +49,15 @@ public class Category {
     public void setArticles(List<Article> articles) {
         this.articles = articles;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        // À la précision de la colonne : la valeur gardée dans le cache de second niveau doit être celle relue en base
+        this.updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
@@ -1,22 +1,43 @@
 package org.wild.myblog.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Entity
+// Unique : deux envois simultanés du même contenu ne peuvent pas créer deux images (plusieurs NULL restent permis)
+@Table(indexes = @Index(name = "uk_image_content_hash", columnList = "content_hash", unique = true))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "image")
 public class Image {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "image_seq")
+    @SequenceGenerator(name = "image_seq", sequenceName = "image_seq", allocationSize = Article.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
     private String url;
 
+    // Renseignés pour les images envoyées au blog (POST /images/files) ; les images créées à partir d'une
+    // simple URL n'ont ni empreinte ni fichier local.
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(length = 50)
+    private String contentType;
+
+    private Long contentLength;
+
     @ManyToMany(mappedBy = "images")
     private List<Article> articles;
 
+    private LocalDateTime updatedAt;
+
     public Long getId() {
         return id;
     }
@@ -33,6 +54,30 @@ public class Image {
         this.url = url;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getContentLength() {
+        return contentLength;
+    }
+
+    public void setContentLength(Long contentLength) {
+        this.contentLength = contentLength;
+    }
+
     public List<Article> getArticles() {
         return articles;
     }
@@ -40,4 +85,15 @@ public class Image {
     public void setArticles(List<Article> articles) {
         this.articles = articles;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        // À la précision de la colonne : la valeur gardée dans le cache de second niveau doit être celle relue en base
+        this.updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
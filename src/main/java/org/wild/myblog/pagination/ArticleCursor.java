@@ -0,0 +1,52 @@
+package org.wild.myblog.pagination;
+
+import org.wild.myblog.model.Article;
+import org.wild.myblog.repository.ArticleSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position d'une page d'articles, triée par (createdAt DESC, id DESC).
+ * Le client ne voit qu'une chaîne opaque, qu'il renvoie tel quel pour obtenir la page suivante.
+ */
+public record ArticleCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /** Position placée avant tous les articles : la page qui la suit est la première. */
+    public static final ArticleCursor START = new ArticleCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    public static ArticleCursor of(Article article) {
+        return new ArticleCursor(article.getCreatedAt(), article.getId());
+    }
+
+    public static ArticleCursor of(ArticleSummary summary) {
+        return new ArticleCursor(summary.getCreatedAt(), summary.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si le curseur n'a pas été produit par {@link #encode()}
+     */
+    public static ArticleCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separatorIndex));
+            Long id = Long.valueOf(raw.substring(separatorIndex + 1));
+            return new ArticleCursor(createdAt, id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.wild.myblog.pagination;
+
+/**
+ * Taille des pages de liste : celle demandée par le client, bornée.
+ */
+public final class PageSize {
+
+    public static final int DEFAULT = 20;
+    public static final int MAX = 100;
+
+    private PageSize() {
+    }
+
+    public static int bounded(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT;
+        }
+        return Math.min(size, MAX);
+    }
+}
@@ -0,0 +1,40 @@
+package org.wild.myblog.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position dans une liste de résultats classés par pertinence. Le classement est recalculé en mémoire
+ * à chaque requête, un simple rang suffit donc ; il reste opaque pour le client comme {@link ArticleCursor}.
+ */
+public record SearchCursor(int offset) {
+
+    /** Rang maximal d'une page : au-delà, le classement garderait trop de résultats en mémoire. */
+    public static final int MAX_OFFSET = 10_000;
+
+    private static final String PREFIX = "rank:";
+
+    public String encode() {
+        String raw = PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si le curseur n'a pas été produit par {@link #encode()}, ou dépasse {@link #MAX_OFFSET}
+     */
+    public static SearchCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!raw.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            int offset = Integer.parseInt(raw.substring(PREFIX.length()));
+            if (offset < 0 || offset > MAX_OFFSET) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new SearchCursor(offset);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package org.wild.myblog.repository;
+
+public interface ArticleAuthorLink {
+    Long getArticleId();
+    Long getAuthorId();
+}
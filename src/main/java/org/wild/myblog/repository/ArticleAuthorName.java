@@ -0,0 +1,7 @@
+package org.wild.myblog.repository;
+
+public interface ArticleAuthorName {
+    Long getArticleId();
+    String getFirstname();
+    String getLastname();
+}
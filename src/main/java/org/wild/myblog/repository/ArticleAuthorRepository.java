@@ -1,9 +1,22 @@
 package org.wild.myblog.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.wild.myblog.model.ArticleAuthor;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ArticleAuthorRepository extends JpaRepository<ArticleAuthor, Long> {
+
+    // Liens article-auteur seuls, sans charger les entités (index de suggestions et de facettes)
+
+    @Query("select aa.article.id as articleId, aa.author.id as authorId from ArticleAuthor aa")
+    List<ArticleAuthorLink> findAllLinks();
+
+    @Query("select aa.article.id as articleId, aa.author.id as authorId from ArticleAuthor aa where aa.article.id in :articleIds")
+    List<ArticleAuthorLink> findLinksByArticleIdIn(@Param("articleIds") Collection<Long> articleIds);
 }
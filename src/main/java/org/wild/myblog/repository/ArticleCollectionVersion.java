@@ -0,0 +1,13 @@
+package org.wild.myblog.repository;
+
+import java.time.LocalDateTime;
+
+public interface ArticleCollectionVersion {
+    LocalDateTime getArticlesUpdatedAt();
+    Long getArticleCount();
+    LocalDateTime getCategoriesUpdatedAt();
+    LocalDateTime getAuthorsUpdatedAt();
+    LocalDateTime getImagesUpdatedAt();
+    Long getAuthorLinkCount();
+    Long getAuthorLinkMaxId();
+}
@@ -0,0 +1,9 @@
+package org.wild.myblog.repository;
+
+import java.time.LocalDateTime;
+
+public interface ArticleFacetKey {
+    Long getId();
+    Long getCategoryId();
+    LocalDateTime getCreatedAt();
+}
@@ -1,13 +1,202 @@
 package org.wild.myblog.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.wild.myblog.model.Article;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ArticleRepository extends JpaRepository<Article, Long> {
-    List<Article> findArticlesByContentContaining(String content);
-    List<Article> findArticlesByCreatedAtAfter(LocalDateTime createdAt);
-    List<Article> findTop5ArticlesByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+    // Les méthodes de liste chargent la catégorie par jointure (@EntityGraph) ; les images et les auteurs
+    // sont ensuite chargés par lots avec un IN (voir @BatchSize sur Article et Author), le nombre de requêtes
+    // d'une page ne dépend donc pas du nombre d'articles.
+
+    // Pagination par curseur (keyset) sur (createdAt, id) : on se positionne après la dernière ligne
+    // de la page précédente au lieu d'utiliser un OFFSET, la page 1000 coûte donc autant que la page 1.
+    // La première page part de ArticleCursor.START.
+
+    @EntityGraph(attributePaths = "category")
+    @Query("""
+            select a from Article a
+            where a.createdAt <= :createdAt and (a.createdAt < :createdAt or a.id < :id)
+            order by a.createdAt desc, a.id desc""")
+    List<Article> findPageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("""
+            select a from Article a
+            where a.createdAt > :createdAfter
+            and a.createdAt <= :createdAt and (a.createdAt < :createdAt or a.id < :id)
+            order by a.createdAt desc, a.id desc""")
+    List<Article> findByCreatedAtAfterPageBefore(@Param("createdAfter") LocalDateTime createdAfter, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Projections résumées : mêmes pages que ci-dessus, sans jamais lire la colonne TEXT content.
+    // Leurs résultats sont des valeurs simples, gardés dans le cache de requêtes (région article-summaries) :
+    // Hibernate les invalide dès qu'une table interrogée est modifiée. Les requêtes qui renvoient des entités
+    // Article n'y sont pas : le cache ne garderait que les ids, relus ensuite un par un.
+
+    String SUMMARY_CACHE_REGION = "article-summaries";
+    String VERSION_CACHE_REGION = "article-versions";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SUMMARY_CACHE_REGION)
+    })
+    @Query("""
+            select a.id as id, a.title as title, a.excerpt as excerpt, a.createdAt as createdAt,
+                   a.updatedAt as updatedAt, c.name as categoryName
+            from Article a left join a.category c
+            where a.createdAt <= :createdAt and (a.createdAt < :createdAt or a.id < :id)
+            order by a.createdAt desc, a.id desc""")
+    List<ArticleSummary> findSummaryPageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SUMMARY_CACHE_REGION)
+    })
+    @Query("""
+            select a.id as id, a.title as title, a.excerpt as excerpt, a.createdAt as createdAt,
+                   a.updatedAt as updatedAt, c.name as categoryName
+            from Article a left join a.category c
+            where a.createdAt > :createdAfter
+            and a.createdAt <= :createdAt and (a.createdAt < :createdAt or a.id < :id)
+            order by a.createdAt desc, a.id desc""")
+    List<ArticleSummary> findSummaryByCreatedAtAfterPageBefore(@Param("createdAfter") LocalDateTime createdAfter, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SUMMARY_CACHE_REGION)
+    })
+    @Query("""
+            select a.id as id, a.title as title, a.excerpt as excerpt, a.createdAt as createdAt,
+                   a.updatedAt as updatedAt, c.name as categoryName
+            from Article a join a.category c
+            where c.id = :categoryId
+            and a.createdAt <= :createdAt and (a.createdAt < :createdAt or a.id < :id)
+            order by a.createdAt desc, a.id desc""")
+    List<ArticleSummary> findSummaryByCategoryIdPageBefore(@Param("categoryId") Long categoryId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Articles d'un auteur, pour son flux RSS/Atom
+    @Query("""
+            select a.id as id, a.title as title, a.excerpt as excerpt, a.createdAt as createdAt,
+                   a.updatedAt as updatedAt, c.name as categoryName
+            from Article a left join a.category c
+            where exists (select aa.id from ArticleAuthor aa where aa.article.id = a.id and aa.author.id = :authorId)
+            and a.createdAt <= :createdAt and (a.createdAt < :createdAt or a.id < :id)
+            order by a.createdAt desc, a.id desc""")
+    List<ArticleSummary> findSummaryByAuthorIdPageBefore(@Param("authorId") Long authorId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Parcours de toute la table pour l'export : curseur JDBC en avant seulement, lu EXPORT_FETCH_SIZE lignes
+    // à la fois (sur MySQL, useCursorFetch=true dans l'URL fait respecter le fetch size côté serveur).
+    // Le Stream doit être consommé puis fermé dans une transaction.
+
+    int EXPORT_FETCH_SIZE = 250;
+
+    @EntityGraph(attributePaths = "category")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a from Article a order by a.id")
+    Stream<Article> streamAllByOrderById();
+
+    // Chargement par identifiants, pour les résultats de la recherche plein texte (l'ordre est celui de la base)
+
+    @EntityGraph(attributePaths = "category")
+    List<Article> findByIdIn(Collection<Long> ids);
+
+    @Query("""
+            select a.id as id, a.title as title, a.excerpt as excerpt, a.createdAt as createdAt,
+                   a.updatedAt as updatedAt, c.name as categoryName
+            from Article a left join a.category c
+            where a.id in :ids""")
+    List<ArticleSummary> findSummaryByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Les mêmes pages reviennent souvent (la première surtout) : même région que les résumés
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SUMMARY_CACHE_REGION)
+    })
+    @Query("""
+            select aa.article.id as articleId, au.firstname as firstname, au.lastname as lastname
+            from ArticleAuthor aa join aa.author au
+            where aa.article.id in :articleIds
+            order by aa.id""")
+    List<ArticleAuthorName> findAuthorNamesByArticleIdIn(@Param("articleIds") Collection<Long> articleIds);
+
+    // Articles dont la représentation dépend d'une catégorie, d'un auteur ou d'une image
+
+    @Query("select a.id from Article a where a.category.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("select aa.article.id from ArticleAuthor aa where aa.author.id = :authorId")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId);
+
+    @Query("select a.id from Article a join a.images i where i.id = :imageId")
+    List<Long> findIdsByImageId(@Param("imageId") Long imageId);
+
+    // Versions pour les GET conditionnels : une seule requête agrégée, sans charger ni sérialiser les articles,
+    // et le plus souvent servie par le cache de requêtes (région article-versions)
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = VERSION_CACHE_REGION)
+    })
+    @Query("""
+            select a.updatedAt as updatedAt,
+                   c.updatedAt as categoryUpdatedAt,
+                   (select max(au.updatedAt) from ArticleAuthor aa join aa.author au where aa.article.id = a.id) as authorsUpdatedAt,
+                   (select count(aa) from ArticleAuthor aa where aa.article.id = a.id) as authorLinkCount,
+                   (select max(aa.id) from ArticleAuthor aa where aa.article.id = a.id) as authorLinkMaxId,
+                   (select max(i.updatedAt) from Article ai join ai.images i where ai.id = a.id) as imagesUpdatedAt,
+                   (select count(i) from Article ai join ai.images i where ai.id = a.id) as imageCount
+            from Article a left join a.category c
+            where a.id = :id""")
+    Optional<ArticleVersion> findVersionById(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = VERSION_CACHE_REGION)
+    })
+    @Query("""
+            select max(a.updatedAt) as articlesUpdatedAt,
+                   count(a) as articleCount,
+                   (select max(c.updatedAt) from Category c) as categoriesUpdatedAt,
+                   (select max(au.updatedAt) from Author au) as authorsUpdatedAt,
+                   (select max(i.updatedAt) from Image i) as imagesUpdatedAt,
+                   (select count(aa) from ArticleAuthor aa) as authorLinkCount,
+                   (select max(aa.id) from ArticleAuthor aa) as authorLinkMaxId
+            from Article a""")
+    ArticleCollectionVersion findCollectionVersion();
+
+    // Parcours de toute la table par lots, pour reconstruire l'index de recherche
+    @Query("select a.id as id, a.title as title, a.content as content from Article a where a.id > :id order by a.id")
+    List<ArticleText> findTextsAfterId(@Param("id") Long id, Limit limit);
+
+    // Titres et dates de création, par lots, pour reconstruire l'index de suggestions
+    @Query("select a.id as id, a.title as title, a.createdAt as createdAt from Article a where a.id > :id order by a.id")
+    List<ArticleTitle> findTitlesAfterId(@Param("id") Long id, Limit limit);
+
+    // Catégorie et date de création, pour l'index de facettes : par lots à la reconstruction, par ids ensuite
+    @Query("select a.id as id, a.category.id as categoryId, a.createdAt as createdAt from Article a where a.id > :id order by a.id")
+    List<ArticleFacetKey> findFacetKeysAfterId(@Param("id") Long id, Limit limit);
+
+    @Query("select a.id as id, a.category.id as categoryId, a.createdAt as createdAt from Article a where a.id in :ids")
+    List<ArticleFacetKey> findFacetKeysByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Remplit l'extrait des articles enregistrés avant l'ajout de la colonne
+    @Modifying
+    @Query("update Article a set a.excerpt = substring(a.content, 1, " + Article.EXCERPT_LENGTH + ") where a.excerpt is null and a.content is not null")
+    int backfillMissingExcerpts();
+}
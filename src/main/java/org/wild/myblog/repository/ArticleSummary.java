@@ -0,0 +1,12 @@
+package org.wild.myblog.repository;
+
+import java.time.LocalDateTime;
+
+public interface ArticleSummary {
+    Long getId();
+    String getTitle();
+    String getExcerpt();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    String getCategoryName();
+}
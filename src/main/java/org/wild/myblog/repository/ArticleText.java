@@ -0,0 +1,7 @@
+package org.wild.myblog.repository;
+
+public interface ArticleText {
+    Long getId();
+    String getTitle();
+    String getContent();
+}
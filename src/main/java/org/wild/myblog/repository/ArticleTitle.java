@@ -0,0 +1,9 @@
+package org.wild.myblog.repository;
+
+import java.time.LocalDateTime;
+
+public interface ArticleTitle {
+    Long getId();
+    String getTitle();
+    LocalDateTime getCreatedAt();
+}
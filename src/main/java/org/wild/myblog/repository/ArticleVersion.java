@@ -0,0 +1,14 @@
+package org.wild.myblog.repository;
+
+import java.time.LocalDateTime;
+
+// Tout ce dont dépend un ArticleDTO : l'article, sa catégorie, ses auteurs et ses images
+public interface ArticleVersion {
+    LocalDateTime getUpdatedAt();
+    LocalDateTime getCategoryUpdatedAt();
+    LocalDateTime getAuthorsUpdatedAt();
+    Long getAuthorLinkCount();
+    Long getAuthorLinkMaxId();
+    LocalDateTime getImagesUpdatedAt();
+    Long getImageCount();
+}
@@ -0,0 +1,30 @@
+package org.wild.myblog.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.wild.myblog.model.ArticleViewCount;
+
+import java.util.List;
+
+public interface ArticleViewCountRepository extends JpaRepository<ArticleViewCount, Long> {
+
+    // Ajoute les lectures au compteur, en créant la ligne au besoin ; envoyé en lot JDBC par ArticleViewCounter
+    String INCREMENT_SQL = """
+            insert into article_view_count (article_id, views) values (?, ?)
+            on duplicate key update views = views + values(views)""";
+
+    // La jointure écarte les compteurs d'articles supprimés entre-temps
+    @Query("""
+            select a.id as id, a.title as title, a.excerpt as excerpt, a.createdAt as createdAt,
+                   a.updatedAt as updatedAt, c.name as categoryName, v.views as views
+            from ArticleViewCount v join Article a on a.id = v.articleId left join a.category c
+            order by v.views desc, a.id desc""")
+    List<ArticleViewRanking> findMostViewed(Limit limit);
+
+    @Modifying
+    @Query("delete from ArticleViewCount v where v.articleId = :articleId")
+    int deleteByArticleId(@Param("articleId") Long articleId);
+}
@@ -0,0 +1,5 @@
+package org.wild.myblog.repository;
+
+public interface ArticleViewRanking extends ArticleSummary {
+    long getViews();
+}
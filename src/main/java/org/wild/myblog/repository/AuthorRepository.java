@@ -1,9 +1,29 @@
 package org.wild.myblog.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.wild.myblog.model.Author;
 
+import java.util.Optional;
+
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
+
+    @Query("""
+            select au.updatedAt as lastModified,
+                   (select count(aa) from ArticleAuthor aa where aa.author.id = au.id) as relatedCount,
+                   (select max(aa.id) from ArticleAuthor aa where aa.author.id = au.id) as relatedMaxId
+            from Author au
+            where au.id = :id""")
+    Optional<VersionStamp> findVersionById(@Param("id") Long id);
+
+    @Query("""
+            select max(au.updatedAt) as lastModified,
+                   count(au) as count,
+                   (select count(aa) from ArticleAuthor aa) as relatedCount,
+                   (select max(aa.id) from ArticleAuthor aa) as relatedMaxId
+            from Author au""")
+    VersionStamp findCollectionVersion();
 }
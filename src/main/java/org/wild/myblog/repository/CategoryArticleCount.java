@@ -0,0 +1,11 @@
+package org.wild.myblog.repository;
+
+import java.time.LocalDateTime;
+
+public interface CategoryArticleCount {
+    Long getId();
+    String getName();
+    LocalDateTime getUpdatedAt();
+    long getArticleCount();
+    LocalDateTime getArticlesUpdatedAt();
+}
@@ -1,7 +1,31 @@
 package org.wild.myblog.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.wild.myblog.model.Category;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-}
\ No newline at end of file
+
+    // Catégories avec leur nombre d'articles, en une requête groupée. La date du dernier article modifié
+    // sert aussi au calcul de l'ETag : la même requête répond au GET et au GET conditionnel.
+
+    @Query("""
+            select c.id as id, c.name as name, c.updatedAt as updatedAt,
+                   count(a) as articleCount, max(a.updatedAt) as articlesUpdatedAt
+            from Category c left join c.articles a
+            group by c.id, c.name, c.updatedAt
+            order by c.id""")
+    List<CategoryArticleCount> findAllWithArticleCount();
+
+    @Query("""
+            select c.id as id, c.name as name, c.updatedAt as updatedAt,
+                   count(a) as articleCount, max(a.updatedAt) as articlesUpdatedAt
+            from Category c left join c.articles a
+            where c.id = :id
+            group by c.id, c.name, c.updatedAt""")
+    Optional<CategoryArticleCount> findWithArticleCountById(@Param("id") Long id);
+}
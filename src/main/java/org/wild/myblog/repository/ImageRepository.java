@@ -1,7 +1,35 @@
 package org.wild.myblog.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.wild.myblog.model.Image;
 
+import java.util.Optional;
+
 public interface ImageRepository extends JpaRepository<Image, Long> {
+
+    // Image déjà enregistrée avec le même contenu, renvoyée au lieu d'en créer une seconde ; aussi lue à chaque
+    // GET /images/files/..., d'où le cache de requêtes (l'image elle-même est dans le cache de second niveau)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Image> findByContentHash(String contentHash);
+
+    @Query("""
+            select i.updatedAt as lastModified,
+                   (select max(a.updatedAt) from Article a join a.images ai where ai.id = i.id) as relatedLastModified,
+                   (select count(a) from Article a join a.images ai where ai.id = i.id) as relatedCount
+            from Image i
+            where i.id = :id""")
+    Optional<VersionStamp> findVersionById(@Param("id") Long id);
+
+    @Query("""
+            select max(i.updatedAt) as lastModified,
+                   count(i) as count,
+                   (select max(a.updatedAt) from Article a) as relatedLastModified,
+                   (select count(a) from Article a) as relatedCount
+            from Image i""")
+    VersionStamp findCollectionVersion();
 }
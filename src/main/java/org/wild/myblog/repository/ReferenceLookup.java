@@ -0,0 +1,41 @@
+package org.wild.myblog.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Chargement par identifiants des entités de référence (catégories, auteurs, images) à l'écriture d'un article.
+ *
+ * Contrairement à findAllById, qui exécute toujours une requête IN, multiLoad() cherche d'abord dans le
+ * contexte de persistance puis dans le cache de second niveau, et ne lit en base que les ids manquants.
+ */
+@Component
+public class ReferenceLookup {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @return les entités trouvées, sans ordre garanti ; les ids inconnus sont simplement absents
+     */
+    public <T> List<T> findAllById(Class<T> entityType, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // multiLoad() renvoie null pour un id inconnu, même sans ordre imposé
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(entityType)
+                .enableOrderedReturn(false)
+                .multiLoad(new ArrayList<>(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,16 @@
+package org.wild.myblog.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version d'une ressource (ou d'une collection) et des lignes qu'elle embarque dans son DTO.
+ * Le nombre et l'identifiant maximal des lignes liées détectent les ajouts et retraits de liens,
+ * qui ne modifient aucune date.
+ */
+public interface VersionStamp {
+    LocalDateTime getLastModified();
+    Long getCount();
+    LocalDateTime getRelatedLastModified();
+    Long getRelatedCount();
+    Long getRelatedMaxId();
+}
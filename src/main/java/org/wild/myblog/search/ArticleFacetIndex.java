@@ -0,0 +1,302 @@
+package org.wild.myblog.search;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+import org.wild.myblog.pagination.ArticleCursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de facettes en mémoire pour GET /articles/query : un bitmap compressé (Roaring) des identifiants
+ * d'articles par catégorie, par auteur et par jour de création.
+ *
+ * Un filtre se résout en intersections et unions de bitmaps, et le nombre d'articles par catégorie ou par auteur
+ * en une intersection comptée par valeur, sans GROUP BY en base. Les compteurs sont disjonctifs : ceux des
+ * catégories ignorent le filtre sur les catégories (mais pas les autres), si bien que le client voit ce que
+ * donnerait l'ajout d'une catégorie à sa sélection ; de même pour les auteurs.
+ *
+ * Les identifiants d'articles doivent tenir dans un int, comme l'exigent les bitmaps.
+ */
+@Component
+public class ArticleFacetIndex {
+
+    /**
+     * Filtre d'une requête : plusieurs valeurs d'une même facette se cumulent (OU), les facettes entre elles
+     * se restreignent (ET). Une facette vide ou nulle ne filtre pas.
+     *
+     * @param createdAfter  borne exclue, comme GET /articles/search-after
+     * @param createdBefore borne exclue
+     * @param articleIds    articles retenus par la recherche plein texte, ou null sans terme de recherche
+     */
+    public record Filter(Set<Long> categoryIds, Set<Long> authorIds, LocalDateTime createdAfter,
+                         LocalDateTime createdBefore, Collection<Long> articleIds) {
+    }
+
+    public record FacetCount(long id, int count) {
+    }
+
+    /**
+     * @param total      nombre d'articles correspondant au filtre
+     * @param page       position des articles de la page, du plus récent au plus ancien
+     * @param categories nombre d'articles par catégorie, les plus fréquentes d'abord
+     * @param authors    nombre d'articles par auteur, les plus fréquents d'abord
+     */
+    public record Result(int total, List<ArticleCursor> page, List<FacetCount> categories, List<FacetCount> authors) {
+    }
+
+    /**
+     * Catégorie et auteurs d'un article, tels que l'index les connaît.
+     */
+    public record Keys(Long categoryId, Set<Long> authorIds) {
+    }
+
+    private record Entry(LocalDateTime createdAt, Long categoryId, Set<Long> authorIds) {
+    }
+
+    private static final Comparator<ArticleCursor> OLDEST_FIRST = Comparator
+            .comparing(ArticleCursor::createdAt)
+            .thenComparing(ArticleCursor::id);
+
+    private static final Comparator<FacetCount> MOST_FREQUENT_FIRST = Comparator
+            .comparingInt(FacetCount::count).reversed()
+            .thenComparingLong(FacetCount::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byAuthor = new HashMap<>();
+    // Clé : jour de création (LocalDate.toEpochDay) ; seuls les jours aux bornes d'un intervalle sont relus article par article
+    private final NavigableMap<Long, RoaringBitmap> byDay = new TreeMap<>();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    /**
+     * Ajoute l'article, ou remplace entièrement ce que l'index en savait.
+     */
+    public void index(Long articleId, Long categoryId, Collection<Long> authorIds, LocalDateTime createdAt) {
+        int id = Math.toIntExact(articleId);
+        Entry entry = new Entry(createdAt, categoryId, Set.copyOf(authorIds));
+
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+            entries.put(id, entry);
+            all.add(id);
+            if (categoryId != null) {
+                byCategory.computeIfAbsent(categoryId, key -> new RoaringBitmap()).add(id);
+            }
+            for (Long authorId : entry.authorIds()) {
+                byAuthor.computeIfAbsent(authorId, key -> new RoaringBitmap()).add(id);
+            }
+            byDay.computeIfAbsent(dayOf(createdAt), key -> new RoaringBitmap()).add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long articleId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(Math.toIntExact(articleId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            byCategory.clear();
+            byAuthor.clear();
+            byDay.clear();
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copie de la catégorie et des auteurs de chaque article (articles liés, voir RelatedArticleIndex).
+     */
+    public Map<Long, Keys> keys() {
+        lock.readLock().lock();
+        try {
+            Map<Long, Keys> keys = new HashMap<>(entries.size() * 2);
+            entries.forEach((id, entry) -> keys.put((long) id, new Keys(entry.categoryId(), entry.authorIds())));
+            return keys;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applique le filtre et renvoie au plus limit articles placés après la position donnée, dans l'ordre des
+     * listes (createdAt DESC, id DESC), avec au plus facetSize compteurs non nuls par facette.
+     */
+    public Result query(Filter filter, ArticleCursor after, int limit, int facetSize) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap base = all.clone();
+            if (filter.articleIds() != null) {
+                base.and(bitmapOf(filter.articleIds()));
+            }
+            if (filter.createdAfter() != null || filter.createdBefore() != null) {
+                base.and(createdBetween(filter.createdAfter(), filter.createdBefore()));
+            }
+            RoaringBitmap inCategories = unionOf(byCategory, filter.categoryIds());
+            RoaringBitmap inAuthors = unionOf(byAuthor, filter.authorIds());
+
+            RoaringBitmap withCategories = inCategories == null ? base : RoaringBitmap.and(base, inCategories);
+            RoaringBitmap withAuthors = inAuthors == null ? base : RoaringBitmap.and(base, inAuthors);
+            RoaringBitmap matches = inAuthors == null ? withCategories : RoaringBitmap.and(withCategories, inAuthors);
+
+            return new Result(matches.getCardinality(), pageOf(matches, after, limit),
+                    countsOf(byCategory, withAuthors, facetSize), countsOf(byAuthor, withCategories, facetSize));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeEntry(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        all.remove(id);
+        if (entry.categoryId() != null) {
+            removeFrom(byCategory, entry.categoryId(), id);
+        }
+        for (Long authorId : entry.authorIds()) {
+            removeFrom(byAuthor, authorId, id);
+        }
+        removeFrom(byDay, dayOf(entry.createdAt()), id);
+    }
+
+    // Une valeur qui n'a plus d'article disparaît, avec son compteur
+    private static void removeFrom(Map<Long, RoaringBitmap> bitmaps, Long key, int id) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap == null) {
+            return;
+        }
+        bitmap.remove(id);
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(key);
+        }
+    }
+
+    private static RoaringBitmap unionOf(Map<Long, RoaringBitmap> bitmaps, Set<Long> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return null;
+        }
+        return RoaringBitmap.or(keys.stream().map(bitmaps::get).filter(Objects::nonNull).iterator());
+    }
+
+    private static RoaringBitmap bitmapOf(Collection<Long> articleIds) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Long articleId : articleIds) {
+            // Un identifiant hors des int ne peut pas être dans l'index
+            if (articleId >= 0 && articleId <= Integer.MAX_VALUE) {
+                bitmap.add(articleId.intValue());
+            }
+        }
+        return bitmap;
+    }
+
+    // Les jours strictement entre les bornes sont pris en entier ; ceux des bornes sont vérifiés article par article
+    private RoaringBitmap createdBetween(LocalDateTime after, LocalDateTime before) {
+        long fromDay = after == null ? Long.MIN_VALUE : dayOf(after);
+        long toDay = before == null ? Long.MAX_VALUE : dayOf(before);
+        if (fromDay > toDay) {
+            return new RoaringBitmap();
+        }
+        RoaringBitmap result = fromDay == toDay ? new RoaringBitmap()
+                : RoaringBitmap.or(byDay.subMap(fromDay, false, toDay, false).values().iterator());
+        addCreatedBetween(result, byDay.get(fromDay), after, before);
+        if (toDay != fromDay) {
+            addCreatedBetween(result, byDay.get(toDay), after, before);
+        }
+        return result;
+    }
+
+    private void addCreatedBetween(RoaringBitmap result, RoaringBitmap day, LocalDateTime after, LocalDateTime before) {
+        if (day == null) {
+            return;
+        }
+        IntIterator ids = day.getIntIterator();
+        while (ids.hasNext()) {
+            int id = ids.next();
+            LocalDateTime createdAt = entries.get(id).createdAt();
+            if ((after == null || createdAt.isAfter(after)) && (before == null || createdAt.isBefore(before))) {
+                result.add(id);
+            }
+        }
+    }
+
+    // Seuls limit articles sont gardés pendant le parcours : le plus ancien des retenus est en tête du tas
+    private List<ArticleCursor> pageOf(RoaringBitmap matches, ArticleCursor after, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<ArticleCursor> newest = new PriorityQueue<>(limit + 1, OLDEST_FIRST);
+        IntIterator ids = matches.getIntIterator();
+        while (ids.hasNext()) {
+            int id = ids.next();
+            ArticleCursor position = new ArticleCursor(entries.get(id).createdAt(), (long) id);
+            if (OLDEST_FIRST.compare(position, after) >= 0) {
+                continue;
+            }
+            if (newest.size() < limit) {
+                newest.offer(position);
+            } else if (OLDEST_FIRST.compare(position, newest.peek()) > 0) {
+                newest.poll();
+                newest.offer(position);
+            }
+        }
+        List<ArticleCursor> page = new ArrayList<>(newest);
+        page.sort(OLDEST_FIRST.reversed());
+        return page;
+    }
+
+    private static List<FacetCount> countsOf(Map<Long, RoaringBitmap> bitmaps, RoaringBitmap matches, int facetSize) {
+        if (facetSize <= 0 || matches.isEmpty()) {
+            return List.of();
+        }
+        List<FacetCount> counts = new ArrayList<>();
+        for (Map.Entry<Long, RoaringBitmap> entry : bitmaps.entrySet()) {
+            int count = RoaringBitmap.andCardinality(matches, entry.getValue());
+            if (count > 0) {
+                counts.add(new FacetCount(entry.getKey(), count));
+            }
+        }
+        counts.sort(MOST_FREQUENT_FIRST);
+        return counts.size() > facetSize ? List.copyOf(counts.subList(0, facetSize)) : counts;
+    }
+
+    private static long dayOf(LocalDateTime dateTime) {
+        return dateTime.toLocalDate().toEpochDay();
+    }
+}
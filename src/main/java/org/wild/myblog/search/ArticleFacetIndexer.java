@@ -0,0 +1,111 @@
+package org.wild.myblog.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.wild.myblog.datasource.ReadRouting;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.event.ArticleReferencesChangedEvent;
+import org.wild.myblog.model.Article;
+import org.wild.myblog.model.ArticleAuthor;
+import org.wild.myblog.model.Author;
+import org.wild.myblog.repository.ArticleAuthorLink;
+import org.wild.myblog.repository.ArticleAuthorRepository;
+import org.wild.myblog.repository.ArticleFacetKey;
+import org.wild.myblog.repository.ArticleRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Tient {@link ArticleFacetIndex} à jour : reconstruction complète au démarrage, puis mise à jour à chaque écriture
+ * d'un article, ou d'une catégorie ou d'un auteur qui lui est lié.
+ */
+@Component
+public class ArticleFacetIndexer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleFacetIndexer.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int REFERENCES_BATCH_SIZE = 1000;
+
+    private final ArticleFacetIndex articleFacetIndex;
+    private final ArticleRepository articleRepository;
+    private final ArticleAuthorRepository articleAuthorRepository;
+
+    public ArticleFacetIndexer(ArticleFacetIndex articleFacetIndex, ArticleRepository articleRepository, ArticleAuthorRepository articleAuthorRepository) {
+        this.articleFacetIndex = articleFacetIndex;
+        this.articleRepository = articleRepository;
+        this.articleAuthorRepository = articleAuthorRepository;
+    }
+
+    // Comme ArticleSearchIndexer : reconstruit avant que le serveur web n'accepte des écritures
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        articleFacetIndex.clear();
+        Map<Long, List<Long>> authorIdsByArticle = groupByArticle(articleAuthorRepository.findAllLinks());
+        long lastId = 0;
+        List<ArticleFacetKey> batch;
+        do {
+            batch = articleRepository.findFacetKeysAfterId(lastId, Limit.of(REBUILD_BATCH_SIZE));
+            for (ArticleFacetKey key : batch) {
+                articleFacetIndex.index(key.getId(), key.getCategoryId(), authorIdsByArticle.getOrDefault(key.getId(), List.of()), key.getCreatedAt());
+                lastId = key.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        log.info("Index de facettes reconstruit : {} article(s) en {} ms",
+                articleFacetIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Article article = event.article();
+        if (event.type() == ArticleChangedEvent.Type.DELETED) {
+            articleFacetIndex.remove(article.getId());
+            return;
+        }
+        List<Long> authorIds = article.getArticleAuthors() == null ? List.of() : article.getArticleAuthors().stream()
+                .map(ArticleAuthor::getAuthor).filter(Objects::nonNull).map(Author::getId).toList();
+        articleFacetIndex.index(article.getId(), article.getCategory() != null ? article.getCategory().getId() : null,
+                authorIds, article.getCreatedAt());
+    }
+
+    // Catégorie ou auteur supprimé, auteurs déplacés : catégorie et liens sont relus sur la primaire, qu'un réplica
+    // en retard ne fasse pas revenir les anciens
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleReferencesChanged(ArticleReferencesChangedEvent event) {
+        List<Long> articleIds = new ArrayList<>(event.articleIds());
+        for (int from = 0; from < articleIds.size(); from += REFERENCES_BATCH_SIZE) {
+            List<Long> batch = articleIds.subList(from, Math.min(from + REFERENCES_BATCH_SIZE, articleIds.size()));
+            List<ArticleFacetKey> keys = ReadRouting.onPrimary(() -> articleRepository.findFacetKeysByIdIn(batch));
+            Map<Long, List<Long>> authorIdsByArticle = groupByArticle(ReadRouting.onPrimary(() -> articleAuthorRepository.findLinksByArticleIdIn(batch)));
+            Set<Long> missing = new HashSet<>(batch);
+            for (ArticleFacetKey key : keys) {
+                articleFacetIndex.index(key.getId(), key.getCategoryId(), authorIdsByArticle.getOrDefault(key.getId(), List.of()), key.getCreatedAt());
+                missing.remove(key.getId());
+            }
+            missing.forEach(articleFacetIndex::remove);
+        }
+    }
+
+    private static Map<Long, List<Long>> groupByArticle(List<ArticleAuthorLink> links) {
+        Map<Long, List<Long>> authorIdsByArticle = new HashMap<>();
+        for (ArticleAuthorLink link : links) {
+            authorIdsByArticle.computeIfAbsent(link.getArticleId(), id -> new ArrayList<>()).add(link.getAuthorId());
+        }
+        return authorIdsByArticle;
+    }
+}
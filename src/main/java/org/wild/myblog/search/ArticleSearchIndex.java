@@ -0,0 +1,397 @@
+package org.wild.myblog.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire sur le titre et le contenu des articles, classé par BM25.
+ *
+ * Chaque version d'un article reçoit un numéro de document interne croissant : une mise à jour marque
+ * l'ancien document comme supprimé et en ajoute un nouveau, si bien que les listes de postings ne sont
+ * jamais réécrites. Les documents supprimés sont purgés quand ils deviennent majoritaires.
+ */
+@Component
+public class ArticleSearchIndex {
+
+    // Paramètres BM25 usuels
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Un terme du titre compte comme s'il apparaissait plusieurs fois dans le contenu
+    private static final int TITLE_BOOST = 3;
+
+    private static final int MIN_DELETED_DOCS_BEFORE_COMPACTION = 1024;
+
+    /**
+     * Vecteur TF-IDF d'un article, de norme 1, trié par identifiant de terme.
+     */
+    public record TermVector(int[] termIds, float[] weights) {
+
+        public static final TermVector EMPTY = new TermVector(new int[0], new float[0]);
+
+        /**
+         * Similarité cosinus avec un autre vecteur du même appel à {@link #termVectors()}.
+         */
+        public float cosine(TermVector other) {
+            float dot = 0;
+            int i = 0;
+            int j = 0;
+            while (i < termIds.length && j < other.termIds.length) {
+                if (termIds[i] < other.termIds[j]) {
+                    i++;
+                } else if (termIds[i] > other.termIds[j]) {
+                    j++;
+                } else {
+                    dot += weights[i++] * other.weights[j++];
+                }
+            }
+            return dot;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<PostingList> postings = new ArrayList<>();
+    private int[] documentFrequencies = new int[1024];
+
+    // Données par document interne ; le vecteur de termes permet de retirer proprement un document
+    private long[] articleIds = new long[1024];
+    private int[] documentLengths = new int[1024];
+    private int[][] documentTermIds = new int[1024][];
+    private int[][] documentTermFrequencies = new int[1024][];
+    private final BitSet deletedDocs = new BitSet();
+    private final Map<Long, Integer> docByArticleId = new HashMap<>();
+    private int nextDoc;
+    private long totalLength;
+
+    public void index(Long articleId, String title, String content) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String term : TextAnalyzer.tokenize(title)) {
+            frequencies.merge(term, TITLE_BOOST, Integer::sum);
+        }
+        for (String term : TextAnalyzer.tokenize(content)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(articleId);
+            addDocument(articleId, frequencies);
+            if (deletedDocs.cardinality() > MIN_DELETED_DOCS_BEFORE_COMPACTION && deletedDocs.cardinality() > docByArticleId.size()) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long articleId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(articleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            termIds.clear();
+            postings.clear();
+            documentFrequencies = new int[1024];
+            articleIds = new long[1024];
+            documentLengths = new int[1024];
+            documentTermIds = new int[1024][];
+            documentTermFrequencies = new int[1024][];
+            deletedDocs.clear();
+            docByArticleId.clear();
+            nextDoc = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByArticleId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Renvoie les articles contenant au moins un des termes de la requête, les plus pertinents d'abord.
+     * Seuls offset + limit résultats sont gardés en mémoire pendant le parcours.
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.tokenize(query)));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return SearchHits.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveDocs = docByArticleId.size();
+            if (liveDocs == 0) {
+                return SearchHits.EMPTY;
+            }
+            double averageLength = (double) totalLength / liveDocs;
+
+            List<PostingList.Cursor> cursors = new ArrayList<>();
+            List<Double> idfs = new ArrayList<>();
+            for (String term : queryTerms) {
+                Integer termId = termIds.get(term);
+                if (termId == null || documentFrequencies[termId] == 0) {
+                    continue;
+                }
+                PostingList.Cursor cursor = postings.get(termId).cursor();
+                cursor.next();
+                cursors.add(cursor);
+                int df = documentFrequencies[termId];
+                idfs.add(Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5)));
+            }
+            if (cursors.isEmpty()) {
+                return SearchHits.EMPTY;
+            }
+
+            // Jamais plus que le nombre de documents, quel que soit l'offset reçu ; le tas grandit avec les résultats
+            int capacity = (int) Math.min((long) offset + limit, liveDocs);
+            PriorityQueue<ScoredDoc> best = new PriorityQueue<>();
+            int totalHits = 0;
+            // Parcours document par document des listes (toutes triées) : pas d'accumulateur de la taille de l'index
+            while (true) {
+                int doc = PostingList.Cursor.EXHAUSTED;
+                for (PostingList.Cursor cursor : cursors) {
+                    doc = Math.min(doc, cursor.doc());
+                }
+                if (doc == PostingList.Cursor.EXHAUSTED) {
+                    break;
+                }
+                boolean deleted = deletedDocs.get(doc);
+                double score = 0;
+                for (int i = 0; i < cursors.size(); i++) {
+                    PostingList.Cursor cursor = cursors.get(i);
+                    if (cursor.doc() == doc) {
+                        if (!deleted) {
+                            double tf = cursor.frequency();
+                            double norm = K1 * (1 - B + B * documentLengths[doc] / averageLength);
+                            score += idfs.get(i) * tf * (K1 + 1) / (tf + norm);
+                        }
+                        cursor.next();
+                    }
+                }
+                if (deleted) {
+                    continue;
+                }
+                totalHits++;
+                best.offer(new ScoredDoc(doc, score));
+                if (best.size() > capacity) {
+                    best.poll();
+                }
+            }
+
+            ScoredDoc[] ranked = best.toArray(new ScoredDoc[0]);
+            Arrays.sort(ranked, (a, b) -> b.compareTo(a));
+            List<Long> pageArticleIds = new ArrayList<>(limit);
+            for (int i = offset; i < ranked.length; i++) {
+                pageArticleIds.add(articleIds[ranked[i].doc()]);
+            }
+            return new SearchHits(totalHits, pageArticleIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Renvoie, sans les classer, tous les articles contenant au moins un des termes de la requête
+     * (filtre plein texte des requêtes à facettes).
+     */
+    public List<Long> matchingArticleIds(String query) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet matchingDocs = new BitSet();
+            for (String term : queryTerms) {
+                Integer termId = termIds.get(term);
+                if (termId == null || documentFrequencies[termId] == 0) {
+                    continue;
+                }
+                PostingList.Cursor cursor = postings.get(termId).cursor();
+                for (cursor.next(); cursor.doc() != PostingList.Cursor.EXHAUSTED; cursor.next()) {
+                    matchingDocs.set(cursor.doc());
+                }
+            }
+            matchingDocs.andNot(deletedDocs);
+            List<Long> matchingArticleIds = new ArrayList<>(matchingDocs.cardinality());
+            for (int doc = matchingDocs.nextSetBit(0); doc >= 0; doc = matchingDocs.nextSetBit(doc + 1)) {
+                matchingArticleIds.add(articleIds[doc]);
+            }
+            return matchingArticleIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vecteurs de termes de tous les articles, pondérés par le même idf que la recherche : sert au calcul des articles
+     * liés. Les identifiants de termes ne se comparent qu'au sein d'un même appel (une compaction les renumérote).
+     */
+    public Map<Long, TermVector> termVectors() {
+        lock.readLock().lock();
+        try {
+            int liveDocs = docByArticleId.size();
+            Map<Long, TermVector> vectors = new HashMap<>(liveDocs * 2);
+            for (Map.Entry<Long, Integer> entry : docByArticleId.entrySet()) {
+                int doc = entry.getValue();
+                int[] terms = documentTermIds[doc];
+                // Identifiant du terme dans les 32 bits de poids fort, position dans le document dans les autres
+                long[] sorted = new long[terms.length];
+                for (int i = 0; i < terms.length; i++) {
+                    sorted[i] = ((long) terms[i] << 32) | i;
+                }
+                Arrays.sort(sorted);
+
+                int[] termIds = new int[terms.length];
+                float[] weights = new float[terms.length];
+                double norm = 0;
+                for (int i = 0; i < sorted.length; i++) {
+                    int termId = (int) (sorted[i] >>> 32);
+                    int df = documentFrequencies[termId];
+                    double weight = documentTermFrequencies[doc][(int) sorted[i]] * Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+                    termIds[i] = termId;
+                    weights[i] = (float) weight;
+                    norm += weight * weight;
+                }
+                if (norm > 0) {
+                    float inverseNorm = (float) (1 / Math.sqrt(norm));
+                    for (int i = 0; i < weights.length; i++) {
+                        weights[i] *= inverseNorm;
+                    }
+                }
+                vectors.put(entry.getKey(), new TermVector(termIds, weights));
+            }
+            return vectors;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addDocument(Long articleId, Map<String, Integer> frequencies) {
+        int doc = nextDoc++;
+        ensureDocCapacity(doc + 1);
+
+        int[] terms = new int[frequencies.size()];
+        int[] termFrequencies = new int[frequencies.size()];
+        int length = 0;
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            int termId = termIds.computeIfAbsent(entry.getKey(), term -> {
+                postings.add(new PostingList());
+                return postings.size() - 1;
+            });
+            if (termId >= documentFrequencies.length) {
+                documentFrequencies = Arrays.copyOf(documentFrequencies, Math.max(documentFrequencies.length * 2, termId + 1));
+            }
+            postings.get(termId).add(doc, entry.getValue());
+            documentFrequencies[termId]++;
+            terms[i] = termId;
+            termFrequencies[i] = entry.getValue();
+            length += entry.getValue();
+            i++;
+        }
+
+        articleIds[doc] = articleId;
+        documentLengths[doc] = length;
+        documentTermIds[doc] = terms;
+        documentTermFrequencies[doc] = termFrequencies;
+        docByArticleId.put(articleId, doc);
+        totalLength += length;
+    }
+
+    private void removeDocument(Long articleId) {
+        Integer doc = docByArticleId.remove(articleId);
+        if (doc == null) {
+            return;
+        }
+        deletedDocs.set(doc);
+        for (int termId : documentTermIds[doc]) {
+            documentFrequencies[termId]--;
+        }
+        totalLength -= documentLengths[doc];
+        documentTermIds[doc] = null;
+        documentTermFrequencies[doc] = null;
+    }
+
+    // Renumérote les documents vivants à partir de leurs vecteurs de termes, sans relire la base
+    private void compact() {
+        String[] termsById = new String[postings.size()];
+        termIds.forEach((term, termId) -> termsById[termId] = term);
+
+        long[] oldArticleIds = articleIds;
+        int[][] oldTermIds = documentTermIds;
+        int[][] oldTermFrequencies = documentTermFrequencies;
+        int oldNextDoc = nextDoc;
+
+        termIds.clear();
+        postings.clear();
+        documentFrequencies = new int[Math.max(1024, termsById.length)];
+        articleIds = new long[1024];
+        documentLengths = new int[1024];
+        documentTermIds = new int[1024][];
+        documentTermFrequencies = new int[1024][];
+        deletedDocs.clear();
+        docByArticleId.clear();
+        nextDoc = 0;
+        totalLength = 0;
+
+        for (int doc = 0; doc < oldNextDoc; doc++) {
+            if (oldTermIds[doc] == null) {
+                continue;
+            }
+            Map<String, Integer> frequencies = new LinkedHashMap<>();
+            for (int i = 0; i < oldTermIds[doc].length; i++) {
+                frequencies.put(termsById[oldTermIds[doc][i]], oldTermFrequencies[doc][i]);
+            }
+            addDocument(oldArticleIds[doc], frequencies);
+        }
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity <= articleIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(articleIds.length * 2, capacity);
+        articleIds = Arrays.copyOf(articleIds, newCapacity);
+        documentLengths = Arrays.copyOf(documentLengths, newCapacity);
+        documentTermIds = Arrays.copyOf(documentTermIds, newCapacity);
+        documentTermFrequencies = Arrays.copyOf(documentTermFrequencies, newCapacity);
+    }
+
+    // À score égal, le document le plus récent passe devant
+    private record ScoredDoc(int doc, double score) implements Comparable<ScoredDoc> {
+        @Override
+        public int compareTo(ScoredDoc other) {
+            int byScore = Double.compare(score, other.score);
+            return byScore != 0 ? byScore : Integer.compare(doc, other.doc);
+        }
+    }
+}
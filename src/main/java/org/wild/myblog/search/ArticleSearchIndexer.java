@@ -0,0 +1,66 @@
+package org.wild.myblog.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.model.Article;
+import org.wild.myblog.repository.ArticleRepository;
+import org.wild.myblog.repository.ArticleText;
+
+import java.util.List;
+
+/**
+ * Tient {@link ArticleSearchIndex} à jour : reconstruction complète au démarrage,
+ * puis mise à jour article par article à chaque écriture.
+ */
+@Component
+public class ArticleSearchIndexer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleSearchIndexer.class);
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ArticleSearchIndex articleSearchIndex;
+    private final ArticleRepository articleRepository;
+
+    public ArticleSearchIndexer(ArticleSearchIndex articleSearchIndex, ArticleRepository articleRepository) {
+        this.articleSearchIndex = articleSearchIndex;
+        this.articleRepository = articleRepository;
+    }
+
+    // Avant le démarrage du serveur web : aucune écriture ne peut arriver pendant que l'index est vidé et reconstruit
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        articleSearchIndex.clear();
+        long lastId = 0;
+        List<ArticleText> batch;
+        do {
+            batch = articleRepository.findTextsAfterId(lastId, Limit.of(REBUILD_BATCH_SIZE));
+            for (ArticleText text : batch) {
+                articleSearchIndex.index(text.getId(), text.getTitle(), text.getContent());
+                lastId = text.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        log.info("Index de recherche reconstruit : {} article(s) en {} ms",
+                articleSearchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Article article = event.article();
+        if (event.type() == ArticleChangedEvent.Type.DELETED) {
+            articleSearchIndex.remove(article.getId());
+        } else {
+            articleSearchIndex.index(article.getId(), article.getTitle(), article.getContent());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.wild.myblog.search;
+
+import java.util.Arrays;
+
+/**
+ * Liste de (document, fréquence) d'un terme, triée par document et stockée en varints :
+ * chaque document est codé par son écart avec le précédent, soit en général un ou deux octets par entrée.
+ * Les documents sont toujours ajoutés en ordre croissant, ce qui permet d'ajouter sans réencoder.
+ */
+final class PostingList {
+
+    private byte[] bytes = new byte[8];
+    private int length;
+    private int lastDoc = -1;
+
+    void add(int doc, int frequency) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Documents must be added in increasing order: " + doc + " after " + lastDoc);
+        }
+        writeVarInt(doc - lastDoc);
+        writeVarInt(frequency);
+        lastDoc = doc;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    /**
+     * Parcours avant uniquement ; {@link #doc()} vaut {@link #EXHAUSTED} une fois la liste terminée.
+     */
+    final class Cursor {
+
+        static final int EXHAUSTED = Integer.MAX_VALUE;
+
+        private int position;
+        private int doc = -1;
+        private int frequency;
+
+        int doc() {
+            return doc;
+        }
+
+        int frequency() {
+            return frequency;
+        }
+
+        int next() {
+            if (position >= length) {
+                doc = EXHAUSTED;
+                return doc;
+            }
+            doc += readVarInt();
+            frequency = readVarInt();
+            return doc;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package org.wild.myblog.search;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Articles liés à chaque article (GET /articles/{id}/related), précalculés par {@link RelatedArticleIndexer}.
+ *
+ * Le score d'une paire combine la similarité cosinus des vecteurs de termes de l'index de recherche, la catégorie
+ * commune et la part d'auteurs partagés. Chaque article garde ses capacity meilleurs voisins dans deux tableaux
+ * (identifiants et scores). Les lignes de la matrice des paires sont réparties entre les threads d'un ForkJoinPool
+ * dédié, par moitiés successives.
+ *
+ * Après des modifications, seules les lignes touchées sont recalculées : celles des articles modifiés, et celles qui
+ * contenaient un article modifié (il a pu en sortir) ; les autres n'ont qu'à comparer leurs voisins aux articles
+ * modifiés. Les poids idf, eux, évoluent avec le corpus : un recalcul complet périodique les remet à jour.
+ */
+@Component
+public class RelatedArticleIndex implements DisposableBean {
+
+    // Poids des trois critères dans le score d'une paire, chacun entre 0 et 1
+    private static final float CONTENT_WEIGHT = 0.6f;
+    private static final float CATEGORY_WEIGHT = 0.15f;
+    private static final float AUTHORS_WEIGHT = 0.25f;
+
+    // En dessous, une tâche calcule ses lignes elle-même au lieu de se diviser
+    private static final int ROWS_PER_TASK = 16;
+
+    private static final long NO_CATEGORY = -1;
+
+    /**
+     * Voisins d'un article, du plus proche au plus éloigné.
+     */
+    private record Row(long[] articleIds, float[] scores) {
+
+        boolean containsAny(Set<Long> articleIds) {
+            for (long articleId : this.articleIds) {
+                if (articleIds.contains(articleId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Données d'un calcul, figées : un article par position, avec son vecteur de termes, sa catégorie et ses auteurs.
+     */
+    public static final class Corpus {
+
+        private final long[] articleIds;
+        private final ArticleSearchIndex.TermVector[] vectors;
+        private final long[] categoryIds;
+        private final long[][] authorIds;
+        private final Map<Long, Integer> positions;
+
+        private Corpus(int size) {
+            articleIds = new long[size];
+            vectors = new ArticleSearchIndex.TermVector[size];
+            categoryIds = new long[size];
+            authorIds = new long[size][];
+            positions = new HashMap<>(size * 2);
+        }
+
+        /**
+         * Les articles sont ceux de l'index de facettes ; un article absent de l'index de recherche n'a pas de termes.
+         */
+        public static Corpus of(Map<Long, ArticleSearchIndex.TermVector> vectors, Map<Long, ArticleFacetIndex.Keys> keys) {
+            Corpus corpus = new Corpus(keys.size());
+            int position = 0;
+            for (Map.Entry<Long, ArticleFacetIndex.Keys> entry : keys.entrySet()) {
+                Long articleId = entry.getKey();
+                ArticleFacetIndex.Keys articleKeys = entry.getValue();
+                corpus.articleIds[position] = articleId;
+                corpus.vectors[position] = vectors.getOrDefault(articleId, ArticleSearchIndex.TermVector.EMPTY);
+                corpus.categoryIds[position] = articleKeys.categoryId() != null ? articleKeys.categoryId() : NO_CATEGORY;
+                corpus.authorIds[position] = articleKeys.authorIds().stream().mapToLong(Long::longValue).sorted().toArray();
+                corpus.positions.put(articleId, position);
+                position++;
+            }
+            return corpus;
+        }
+
+        int size() {
+            return articleIds.length;
+        }
+
+        float score(int a, int b) {
+            float score = CONTENT_WEIGHT * vectors[a].cosine(vectors[b]);
+            if (categoryIds[a] != NO_CATEGORY && categoryIds[a] == categoryIds[b]) {
+                score += CATEGORY_WEIGHT;
+            }
+            int longest = Math.max(authorIds[a].length, authorIds[b].length);
+            if (longest > 0) {
+                score += AUTHORS_WEIGHT * sharedAuthors(authorIds[a], authorIds[b]) / longest;
+            }
+            return score;
+        }
+
+        private static int sharedAuthors(long[] a, long[] b) {
+            int shared = 0;
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    shared++;
+                    i++;
+                    j++;
+                }
+            }
+            return shared;
+        }
+    }
+
+    private final int capacity;
+    private final ForkJoinPool pool;
+    // Un seul calcul à la fois ; les lectures n'attendent pas et voient le dernier résultat publié
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile Map<Long, Row> rows = Map.of();
+
+    public RelatedArticleIndex(
+            @Value("${blog.related.max-size:5}") int capacity,
+            @Value("${blog.related.parallelism:0}") int parallelism
+    ) {
+        this.capacity = capacity;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Renvoie au plus limit articles liés, les plus proches d'abord, ou null si l'article n'a pas encore été calculé.
+     */
+    public List<Long> related(Long articleId, int limit) {
+        Row row = rows.get(articleId);
+        if (row == null) {
+            return null;
+        }
+        int size = Math.min(limit, row.articleIds().length);
+        List<Long> articleIds = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            articleIds.add(row.articleIds()[i]);
+        }
+        return articleIds;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public void clear() {
+        rows = Map.of();
+    }
+
+    /**
+     * Lance un passage de calcul sur le pool du calcul, sans attendre sa fin.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException si le pool est arrêté
+     */
+    public void execute(Runnable pass) {
+        pool.execute(pass);
+    }
+
+    public void rebuild(Corpus corpus) {
+        update(corpus, null);
+    }
+
+    /**
+     * Recalcule les voisins après la modification (ou la suppression) des articles donnés ; null recalcule tout.
+     */
+    public void update(Corpus corpus, Set<Long> changedArticleIds) {
+        updateLock.lock();
+        try {
+            Pass pass = new Pass(corpus, rows, changedArticleIds);
+            pool.invoke(new RowsTask(pass, 0, corpus.size()));
+            Map<Long, Row> updated = new HashMap<>(corpus.size() * 2);
+            for (int i = 0; i < corpus.size(); i++) {
+                updated.put(corpus.articleIds[i], pass.results[i]);
+            }
+            rows = Collections.unmodifiableMap(updated);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private final class Pass {
+
+        private final Corpus corpus;
+        private final Map<Long, Row> previous;
+        private final Set<Long> changed;
+        // Positions des articles modifiés encore présents
+        private final int[] changedPositions;
+        private final Row[] results;
+
+        Pass(Corpus corpus, Map<Long, Row> previous, Set<Long> changed) {
+            this.corpus = corpus;
+            this.previous = previous;
+            this.changed = changed;
+            this.changedPositions = changed == null ? new int[0]
+                    : changed.stream().map(corpus.positions::get).filter(Objects::nonNull).mapToInt(Integer::intValue).toArray();
+            this.results = new Row[corpus.size()];
+        }
+
+        Row rowOf(int position) {
+            long articleId = corpus.articleIds[position];
+            Row previousRow = previous.get(articleId);
+            if (changed == null || changed.contains(articleId) || previousRow == null || previousRow.containsAny(changed)) {
+                TopK top = new TopK(capacity);
+                for (int other = 0; other < corpus.size(); other++) {
+                    if (other != position) {
+                        top.offer(corpus.articleIds[other], corpus.score(position, other));
+                    }
+                }
+                return top.toRow();
+            }
+            if (changedPositions.length == 0) {
+                return previousRow;
+            }
+            // Voisins inchangés : seuls les articles modifiés peuvent y entrer
+            TopK top = new TopK(capacity);
+            for (int i = 0; i < previousRow.articleIds().length; i++) {
+                top.offer(previousRow.articleIds()[i], previousRow.scores()[i]);
+            }
+            for (int other : changedPositions) {
+                top.offer(corpus.articleIds[other], corpus.score(position, other));
+            }
+            return top.toRow();
+        }
+    }
+
+    private final class RowsTask extends RecursiveAction {
+
+        private final Pass pass;
+        private final int from;
+        private final int to;
+
+        RowsTask(Pass pass, int from, int to) {
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                for (int position = from; position < to; position++) {
+                    pass.results[position] = pass.rowOf(position);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RowsTask(pass, from, middle), new RowsTask(pass, middle, to));
+        }
+    }
+
+    // Meilleurs voisins d'une ligne, triés par insertion : score décroissant, puis article le plus récent (id le plus grand)
+    private static final class TopK {
+
+        private final long[] articleIds;
+        private final float[] scores;
+        private int size;
+
+        TopK(int capacity) {
+            articleIds = new long[capacity];
+            scores = new float[capacity];
+        }
+
+        void offer(long articleId, float score) {
+            if (score <= 0) {
+                return;
+            }
+            int position = size;
+            while (position > 0 && (scores[position - 1] < score
+                    || (scores[position - 1] == score && articleIds[position - 1] < articleId))) {
+                position--;
+            }
+            if (position >= articleIds.length) {
+                return;
+            }
+            int moved = Math.min(size, articleIds.length - 1) - position;
+            System.arraycopy(articleIds, position, articleIds, position + 1, moved);
+            System.arraycopy(scores, position, scores, position + 1, moved);
+            articleIds[position] = articleId;
+            scores[position] = score;
+            size = Math.min(size + 1, articleIds.length);
+        }
+
+        Row toRow() {
+            return new Row(Arrays.copyOf(articleIds, size), Arrays.copyOf(scores, size));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.wild.myblog.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.event.ArticleReferencesChangedEvent;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tient {@link RelatedArticleIndex} à jour, en tâche de fond : les écritures ne font que noter les articles modifiés,
+ * recalculés au passage suivant, lancé par la tâche planifiée sur le pool de RelatedArticleIndex. Le calcul lit
+ * l'index de recherche et l'index de facettes, sans requête SQL.
+ *
+ * Le calcul complet est lancé quand l'application accepte du trafic (après la reconstruction des deux index,
+ * faite avant le démarrage du serveur web), puis toutes les full-rebuild-interval pour suivre l'évolution des poids idf.
+ */
+@Component
+public class RelatedArticleIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedArticleIndexer.class);
+
+    private final RelatedArticleIndex relatedArticleIndex;
+    private final ArticleSearchIndex articleSearchIndex;
+    private final ArticleFacetIndex articleFacetIndex;
+    private final long fullRebuildIntervalNanos;
+
+    private final Set<Long> changedArticleIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuildRequested;
+    private volatile long lastRebuildNanos = System.nanoTime();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RelatedArticleIndexer(
+            RelatedArticleIndex relatedArticleIndex,
+            ArticleSearchIndex articleSearchIndex,
+            ArticleFacetIndex articleFacetIndex,
+            @Value("${blog.related.full-rebuild-interval:PT6H}") Duration fullRebuildInterval
+    ) {
+        this.relatedArticleIndex = relatedArticleIndex;
+        this.articleSearchIndex = articleSearchIndex;
+        this.articleFacetIndex = articleFacetIndex;
+        this.fullRebuildIntervalNanos = fullRebuildInterval.toNanos();
+    }
+
+    @EventListener
+    public void onReadinessChanged(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            rebuildRequested = true;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        changedArticleIds.add(event.article().getId());
+    }
+
+    // Catégorie ou auteurs changés : les articles concernés changent de voisins
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleReferencesChanged(ArticleReferencesChangedEvent event) {
+        changedArticleIds.addAll(event.articleIds());
+    }
+
+    // Le thread du planificateur, partagé avec les autres tâches @Scheduled (compteurs de lectures, battements du
+    // flux SSE), ne fait que lancer le passage : le calcul tourne sur le pool de RelatedArticleIndex
+    @Scheduled(fixedDelayString = "${blog.related.check-interval:PT5S}")
+    public void recomputeIfDue() {
+        boolean full = rebuildRequested || System.nanoTime() - lastRebuildNanos >= fullRebuildIntervalNanos;
+        if (!full && changedArticleIds.isEmpty()) {
+            return;
+        }
+        // Un seul passage à la fois : ce qui a changé entre-temps sera repris au suivant
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            relatedArticleIndex.execute(() -> {
+                try {
+                    if (full) {
+                        rebuild();
+                    } else {
+                        update();
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Échec du calcul des articles liés", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool arrêté : l'application s'arrête
+            running.set(false);
+        }
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        rebuildRequested = false;
+        // Avant la copie des index : une modification notée ensuite sera reprise au passage suivant
+        changedArticleIds.clear();
+        relatedArticleIndex.rebuild(corpus());
+        lastRebuildNanos = System.nanoTime();
+        log.info("Articles liés recalculés : {} article(s) en {} ms",
+                relatedArticleIndex.size(), (lastRebuildNanos - start) / 1_000_000);
+    }
+
+    public void update() {
+        Set<Long> changed = new HashSet<>();
+        for (Iterator<Long> iterator = changedArticleIds.iterator(); iterator.hasNext(); ) {
+            changed.add(iterator.next());
+            iterator.remove();
+        }
+        if (!changed.isEmpty()) {
+            relatedArticleIndex.update(corpus(), changed);
+        }
+    }
+
+    private RelatedArticleIndex.Corpus corpus() {
+        return RelatedArticleIndex.Corpus.of(articleSearchIndex.termVectors(), articleFacetIndex.keys());
+    }
+}
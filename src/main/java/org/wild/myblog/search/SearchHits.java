@@ -0,0 +1,14 @@
+package org.wild.myblog.search;
+
+import java.util.List;
+
+/**
+ * Une page de résultats, triée par pertinence décroissante.
+ *
+ * @param totalHits  nombre total d'articles correspondant à la recherche
+ * @param articleIds identifiants des articles de la page demandée
+ */
+public record SearchHits(int totalHits, List<Long> articleIds) {
+
+    public static final SearchHits EMPTY = new SearchHits(0, List.of());
+}
@@ -0,0 +1,257 @@
+package org.wild.myblog.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Suggestions de saisie (GET /articles/suggest) sur les titres des articles et les noms des auteurs.
+ *
+ * Chaque titre ou nom est rangé dans un {@link SuggestTrie}, replié comme par TextAnalyzer (minuscules sans
+ * accents), sous chacun de ses débuts de mot : "spr" trouve "Découvrir Spring Boot". Les plus récents passent
+ * d'abord : un article par sa date de création, un auteur par celle de son dernier article. Le rang d'un auteur
+ * est donc recalculé quand un de ses articles est ajouté, supprimé ou change d'auteurs.
+ */
+@Component
+public class SuggestIndex {
+
+    public enum Kind {
+        ARTICLE,
+        AUTHOR
+    }
+
+    public record Suggestion(Kind kind, long id, String label, long recency) {
+    }
+
+    private static final Comparator<Suggestion> MOST_RECENT_FIRST = Comparator
+            .comparingLong(Suggestion::recency).reversed()
+            .thenComparing(Suggestion::kind)
+            .thenComparing(Comparator.comparingLong(Suggestion::id).reversed());
+
+    // Auteur sans article : après tous les autres
+    private static final long NO_RECENCY = Long.MIN_VALUE;
+
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SuggestTrie<Suggestion> trie;
+
+    private final Map<Long, Suggestion> articles = new HashMap<>();
+    private final Map<Long, Suggestion> authors = new HashMap<>();
+    private final Map<Long, Set<Long>> authorIdsByArticle = new HashMap<>();
+    private final Map<Long, Set<Long>> articleIdsByAuthor = new HashMap<>();
+
+    public SuggestIndex(@Value("${blog.suggest.max-size:10}") int capacity) {
+        this.capacity = capacity;
+        this.trie = new SuggestTrie<>(MOST_RECENT_FIRST, capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void indexArticle(Long articleId, String title, LocalDateTime createdAt, Collection<Long> authorIds) {
+        lock.writeLock().lock();
+        try {
+            replace(articles, new Suggestion(Kind.ARTICLE, articleId, title, toRecency(createdAt)));
+            relink(articleId, authorIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeArticle(Long articleId) {
+        lock.writeLock().lock();
+        try {
+            Suggestion removed = articles.remove(articleId);
+            if (removed != null) {
+                trie.remove(removed, keysOf(removed.label()));
+            }
+            relink(articleId, List.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remplace les auteurs d'un article, quand ils ont changé sans que l'article lui-même soit réindexé.
+     */
+    public void linkArticle(Long articleId, Collection<Long> authorIds) {
+        lock.writeLock().lock();
+        try {
+            relink(articleId, authorIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexAuthor(Long authorId, String firstname, String lastname) {
+        String name = (nullToEmpty(firstname) + " " + nullToEmpty(lastname)).trim();
+        lock.writeLock().lock();
+        try {
+            replace(authors, new Suggestion(Kind.AUTHOR, authorId, name, authorRecency(authorId)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAuthor(Long authorId) {
+        lock.writeLock().lock();
+        try {
+            Suggestion removed = authors.remove(authorId);
+            if (removed != null) {
+                trie.remove(removed, keysOf(removed.label()));
+            }
+            Set<Long> articleIds = articleIdsByAuthor.remove(authorId);
+            if (articleIds != null) {
+                for (Long articleId : articleIds) {
+                    Set<Long> authorIds = authorIdsByArticle.get(articleId);
+                    if (authorIds != null && authorIds.remove(authorId) && authorIds.isEmpty()) {
+                        authorIdsByArticle.remove(articleId);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            trie.clear();
+            articles.clear();
+            authors.clear();
+            authorIdsByArticle.clear();
+            articleIdsByAuthor.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return articles.size() + authors.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Articles et auteurs dont un mot commence par le préfixe (les mots suivants du préfixe devant suivre
+     * dans l'ordre), les plus récents d'abord.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = String.join(" ", words(prefix));
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.top(key, Math.min(limit, capacity));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(Map<Long, Suggestion> suggestions, Suggestion suggestion) {
+        Suggestion previous = suggestions.put(suggestion.id(), suggestion);
+        if (suggestion.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            trie.remove(previous, keysOf(previous.label()));
+        }
+        trie.add(suggestion, keysOf(suggestion.label()));
+    }
+
+    private void relink(Long articleId, Collection<Long> authorIds) {
+        Set<Long> affectedAuthorIds = new HashSet<>(authorIds);
+        Set<Long> previousAuthorIds = authorIdsByArticle.remove(articleId);
+        if (previousAuthorIds != null) {
+            for (Long authorId : previousAuthorIds) {
+                Set<Long> articleIds = articleIdsByAuthor.get(authorId);
+                if (articleIds != null && articleIds.remove(articleId) && articleIds.isEmpty()) {
+                    articleIdsByAuthor.remove(authorId);
+                }
+            }
+            affectedAuthorIds.addAll(previousAuthorIds);
+        }
+        if (!authorIds.isEmpty()) {
+            authorIdsByArticle.put(articleId, new HashSet<>(authorIds));
+            for (Long authorId : authorIds) {
+                articleIdsByAuthor.computeIfAbsent(authorId, id -> new HashSet<>()).add(articleId);
+            }
+        }
+        for (Long authorId : affectedAuthorIds) {
+            Suggestion author = authors.get(authorId);
+            if (author != null) {
+                replace(authors, new Suggestion(Kind.AUTHOR, authorId, author.label(), authorRecency(authorId)));
+            }
+        }
+    }
+
+    private long authorRecency(Long authorId) {
+        long recency = NO_RECENCY;
+        for (Long articleId : articleIdsByAuthor.getOrDefault(authorId, Set.of())) {
+            Suggestion article = articles.get(articleId);
+            if (article != null) {
+                recency = Math.max(recency, article.recency());
+            }
+        }
+        return recency;
+    }
+
+    // Le texte replié à partir de chacun de ses débuts de mot
+    private static Set<String> keysOf(String label) {
+        List<String> words = words(label);
+        String folded = String.join(" ", words);
+        Set<String> keys = new LinkedHashSet<>();
+        int offset = 0;
+        for (String word : words) {
+            keys.add(folded.substring(offset));
+            offset += word.length() + 1;
+        }
+        return keys;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return words;
+        }
+        String folded = TextAnalyzer.fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean letterOrDigit = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static long toRecency(LocalDateTime dateTime) {
+        return dateTime == null ? NO_RECENCY : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,122 @@
+package org.wild.myblog.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.wild.myblog.datasource.ReadRouting;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.event.ArticleReferencesChangedEvent;
+import org.wild.myblog.event.AuthorChangedEvent;
+import org.wild.myblog.model.Article;
+import org.wild.myblog.model.ArticleAuthor;
+import org.wild.myblog.model.Author;
+import org.wild.myblog.repository.ArticleAuthorLink;
+import org.wild.myblog.repository.ArticleAuthorRepository;
+import org.wild.myblog.repository.ArticleRepository;
+import org.wild.myblog.repository.ArticleTitle;
+import org.wild.myblog.repository.AuthorRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Tient {@link SuggestIndex} à jour : reconstruction complète au démarrage, puis mise à jour à chaque écriture
+ * d'un article ou d'un auteur.
+ */
+@Component
+public class SuggestIndexer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestIndexer.class);
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int LINKS_BATCH_SIZE = 1000;
+
+    private final SuggestIndex suggestIndex;
+    private final ArticleRepository articleRepository;
+    private final AuthorRepository authorRepository;
+    private final ArticleAuthorRepository articleAuthorRepository;
+
+    public SuggestIndexer(SuggestIndex suggestIndex, ArticleRepository articleRepository, AuthorRepository authorRepository, ArticleAuthorRepository articleAuthorRepository) {
+        this.suggestIndex = suggestIndex;
+        this.articleRepository = articleRepository;
+        this.authorRepository = authorRepository;
+        this.articleAuthorRepository = articleAuthorRepository;
+    }
+
+    // Serveur web pas encore démarré : aucune écriture à perdre entre le vidage et la fin de la reconstruction
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        suggestIndex.clear();
+        Map<Long, List<Long>> authorIdsByArticle = groupByArticle(articleAuthorRepository.findAllLinks());
+        long lastId = 0;
+        List<ArticleTitle> batch;
+        do {
+            batch = articleRepository.findTitlesAfterId(lastId, Limit.of(REBUILD_BATCH_SIZE));
+            for (ArticleTitle title : batch) {
+                suggestIndex.indexArticle(title.getId(), title.getTitle(), title.getCreatedAt(), authorIdsByArticle.getOrDefault(title.getId(), List.of()));
+                lastId = title.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        // Après les articles : le rang d'un auteur dépend de ses articles
+        for (Author author : authorRepository.findAll()) {
+            suggestIndex.indexAuthor(author.getId(), author.getFirstname(), author.getLastname());
+        }
+        log.info("Index de suggestions reconstruit : {} titre(s) et nom(s) en {} ms",
+                suggestIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Article article = event.article();
+        if (event.type() == ArticleChangedEvent.Type.DELETED) {
+            suggestIndex.removeArticle(article.getId());
+            return;
+        }
+        List<Long> authorIds = article.getArticleAuthors() == null ? List.of() : article.getArticleAuthors().stream()
+                .map(ArticleAuthor::getAuthor).filter(Objects::nonNull).map(Author::getId).toList();
+        suggestIndex.indexArticle(article.getId(), article.getTitle(), article.getCreatedAt(), authorIds);
+    }
+
+    // Auteurs ajoutés ou retirés d'articles existants : les liens sont relus sur la primaire, qu'un réplica en retard
+    // ne fasse pas revenir les anciens
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleReferencesChanged(ArticleReferencesChangedEvent event) {
+        List<Long> articleIds = new ArrayList<>(event.articleIds());
+        for (int from = 0; from < articleIds.size(); from += LINKS_BATCH_SIZE) {
+            List<Long> batch = articleIds.subList(from, Math.min(from + LINKS_BATCH_SIZE, articleIds.size()));
+            Map<Long, List<Long>> authorIdsByArticle = groupByArticle(ReadRouting.onPrimary(() -> articleAuthorRepository.findLinksByArticleIdIn(batch)));
+            for (Long articleId : batch) {
+                suggestIndex.linkArticle(articleId, authorIdsByArticle.getOrDefault(articleId, List.of()));
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        Author author = event.author();
+        if (event.type() == AuthorChangedEvent.Type.DELETED) {
+            suggestIndex.removeAuthor(author.getId());
+        } else {
+            suggestIndex.indexAuthor(author.getId(), author.getFirstname(), author.getLastname());
+        }
+    }
+
+    private static Map<Long, List<Long>> groupByArticle(List<ArticleAuthorLink> links) {
+        Map<Long, List<Long>> authorIdsByArticle = new HashMap<>();
+        for (ArticleAuthorLink link : links) {
+            authorIdsByArticle.computeIfAbsent(link.getArticleId(), id -> new ArrayList<>()).add(link.getAuthorId());
+        }
+        return authorIdsByArticle;
+    }
+}
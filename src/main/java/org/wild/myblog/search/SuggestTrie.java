@@ -0,0 +1,300 @@
+package org.wild.myblog.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arbre radix (les chaînes sans embranchement tiennent dans un seul nœud) dont chaque nœud garde, déjà triées,
+ * les capacity meilleures entrées de tout son sous-arbre. Une recherche par préfixe descend au nœud du préfixe
+ * et renvoie sa liste : son coût dépend de la longueur du préfixe, pas du nombre de clés qui le partagent.
+ *
+ * Une même entrée peut être rangée sous plusieurs clés ; elle n'apparaît qu'une fois dans chaque liste.
+ * Après un retrait, les listes concernées sont recalculées du nœud le plus profond vers la racine, à partir des
+ * listes des enfants. Non thread-safe : SuggestIndex sérialise les écritures.
+ */
+final class SuggestTrie<E> {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final Object[] NO_ENTRIES = new Object[0];
+
+    private final Comparator<? super E> order;
+    private final int capacity;
+    private final Node root = new Node("");
+
+    SuggestTrie(Comparator<? super E> order, int capacity) {
+        this.order = order;
+        this.capacity = capacity;
+    }
+
+    private static final class Node {
+        String label;
+        char[] firstChars = NO_CHARS;
+        Node[] children = new Node[0];
+        Object[] terminals = NO_ENTRIES;
+        Object[] top = NO_ENTRIES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(firstChars, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void putChild(Node child) {
+            char c = child.label.charAt(0);
+            int index = Arrays.binarySearch(firstChars, c);
+            if (index >= 0) {
+                children[index] = child;
+                return;
+            }
+            int insertAt = -index - 1;
+            char[] chars = new char[firstChars.length + 1];
+            Node[] nodes = new Node[children.length + 1];
+            System.arraycopy(firstChars, 0, chars, 0, insertAt);
+            System.arraycopy(children, 0, nodes, 0, insertAt);
+            chars[insertAt] = c;
+            nodes[insertAt] = child;
+            System.arraycopy(firstChars, insertAt, chars, insertAt + 1, firstChars.length - insertAt);
+            System.arraycopy(children, insertAt, nodes, insertAt + 1, children.length - insertAt);
+            firstChars = chars;
+            children = nodes;
+        }
+
+        void removeChild(Node child) {
+            int index = Arrays.binarySearch(firstChars, child.label.charAt(0));
+            if (index < 0 || children[index] != child) {
+                return;
+            }
+            char[] chars = new char[firstChars.length - 1];
+            Node[] nodes = new Node[children.length - 1];
+            System.arraycopy(firstChars, 0, chars, 0, index);
+            System.arraycopy(children, 0, nodes, 0, index);
+            System.arraycopy(firstChars, index + 1, chars, index, firstChars.length - index - 1);
+            System.arraycopy(children, index + 1, nodes, index, children.length - index - 1);
+            firstChars = chars;
+            children = nodes;
+        }
+
+        boolean isEmpty() {
+            return terminals.length == 0 && children.length == 0;
+        }
+    }
+
+    void add(E entry, Collection<String> keys) {
+        for (String key : keys) {
+            add(entry, key);
+        }
+    }
+
+    private void add(E entry, String key) {
+        Node node = root;
+        offer(node, entry);
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                Node leaf = new Node(key.substring(position));
+                leaf.terminals = new Object[]{entry};
+                leaf.top = new Object[]{entry};
+                node.putChild(leaf);
+                return;
+            }
+            int common = commonPrefixLength(child.label, key, position);
+            if (common < child.label.length()) {
+                child = split(node, child, common);
+            }
+            offer(child, entry);
+            node = child;
+            position += common;
+        }
+        if (indexOf(node.terminals, entry) < 0) {
+            node.terminals = append(node.terminals, entry);
+        }
+    }
+
+    void remove(E entry, Collection<String> keys) {
+        // Profondeur de chaque nœud traversé, pour recalculer les listes des feuilles vers la racine
+        Map<Node, Integer> depths = new IdentityHashMap<>();
+        for (String key : keys) {
+            List<Node> path = path(key);
+            if (path == null) {
+                continue;
+            }
+            for (int depth = 0; depth < path.size(); depth++) {
+                depths.put(path.get(depth), depth);
+            }
+            Node end = path.get(path.size() - 1);
+            int index = indexOf(end.terminals, entry);
+            if (index >= 0) {
+                end.terminals = removeAt(end.terminals, index);
+            }
+        }
+        List<Map.Entry<Node, Integer>> touched = new ArrayList<>(depths.entrySet());
+        touched.sort(Map.Entry.<Node, Integer>comparingByValue().reversed());
+        for (Map.Entry<Node, Integer> touchedNode : touched) {
+            if (indexOf(touchedNode.getKey().top, entry) >= 0) {
+                recompute(touchedNode.getKey());
+            }
+        }
+        for (String key : keys) {
+            prune(key);
+        }
+    }
+
+    /**
+     * Les limit premières entrées dont une clé commence par le préfixe.
+     */
+    @SuppressWarnings("unchecked")
+    List<E> top(String prefix, int limit) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            Node child = node.child(prefix.charAt(position));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefixLength(child.label, prefix, position);
+            if (position + common < prefix.length() && common < child.label.length()) {
+                return List.of();
+            }
+            node = child;
+            position += common;
+        }
+        int count = Math.min(limit, node.top.length);
+        List<E> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add((E) node.top[i]);
+        }
+        return entries;
+    }
+
+    void clear() {
+        root.firstChars = NO_CHARS;
+        root.children = new Node[0];
+        root.terminals = NO_ENTRIES;
+        root.top = NO_ENTRIES;
+    }
+
+    // Nœuds de la racine jusqu'à celui de la clé, ou null si la clé n'est pas dans l'arbre
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null || !key.startsWith(child.label, position)) {
+                return null;
+            }
+            node = child;
+            path.add(node);
+            position += child.label.length();
+        }
+        return path;
+    }
+
+    private Node split(Node parent, Node child, int at) {
+        Node middle = new Node(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        middle.putChild(child);
+        middle.top = child.top.clone();
+        parent.putChild(middle);
+        return middle;
+    }
+
+    // Retire les nœuds devenus vides puis refusionne un nœud de passage avec son unique enfant
+    private void prune(String key) {
+        List<Node> path = path(key);
+        if (path == null) {
+            return;
+        }
+        int depth = path.size() - 1;
+        while (depth > 0 && path.get(depth).isEmpty()) {
+            path.get(depth - 1).removeChild(path.get(depth));
+            depth--;
+        }
+        Node node = path.get(depth);
+        if (depth > 0 && node.terminals.length == 0 && node.children.length == 1) {
+            Node child = node.children[0];
+            node.label = node.label + child.label;
+            node.firstChars = child.firstChars;
+            node.children = child.children;
+            node.terminals = child.terminals;
+            node.top = child.top;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void offer(Node node, E entry) {
+        Object[] top = node.top;
+        if (indexOf(top, entry) >= 0) {
+            return;
+        }
+        int insertAt = 0;
+        while (insertAt < top.length && order.compare((E) top[insertAt], entry) <= 0) {
+            insertAt++;
+        }
+        if (insertAt >= capacity) {
+            return;
+        }
+        int length = Math.min(top.length + 1, capacity);
+        Object[] updated = new Object[length];
+        System.arraycopy(top, 0, updated, 0, insertAt);
+        updated[insertAt] = entry;
+        System.arraycopy(top, insertAt, updated, insertAt + 1, length - insertAt - 1);
+        node.top = updated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recompute(Node node) {
+        List<E> candidates = new ArrayList<>();
+        for (Object terminal : node.terminals) {
+            candidates.add((E) terminal);
+        }
+        for (Node child : node.children) {
+            for (Object entry : child.top) {
+                candidates.add((E) entry);
+            }
+        }
+        Object[] top = candidates.stream().distinct().sorted(order).limit(capacity).toArray();
+        node.top = top;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int length = 0;
+        while (length < max && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static int indexOf(Object[] entries, Object entry) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].equals(entry)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object[] append(Object[] entries, Object entry) {
+        Object[] updated = Arrays.copyOf(entries, entries.length + 1);
+        updated[entries.length] = entry;
+        return updated;
+    }
+
+    private static Object[] removeAt(Object[] entries, int index) {
+        Object[] updated = new Object[entries.length - 1];
+        System.arraycopy(entries, 0, updated, 0, index);
+        System.arraycopy(entries, index + 1, updated, index, entries.length - index - 1);
+        return updated.length == 0 ? NO_ENTRIES : updated;
+    }
+}
@@ -0,0 +1,93 @@
+package org.wild.myblog.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.wild.myblog.dto.ArticleDTO;
+import org.wild.myblog.mapper.ArticleMapper;
+import org.wild.myblog.model.Article;
+import org.wild.myblog.repository.ArticleRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Export NDJSON de tous les articles (GET /articles/export), un ArticleDTO par ligne.
+ *
+ * Les articles sont lus par un curseur JDBC et écrits par tranches de ArticleRepository.EXPORT_FETCH_SIZE :
+ * images et auteurs de la tranche sont chargés par lots (@BatchSize), la tranche est écrite et envoyée au
+ * client, puis le contexte de persistance est vidé. La mémoire utilisée ne dépend pas du nombre d'articles.
+ */
+@Service
+public class ArticleExportService {
+
+    private final ArticleRepository articleRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter articleWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ArticleExportService(ArticleRepository articleRepository, PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.articleRepository = articleRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Le flush est fait une fois par tranche, pas après chaque article
+        this.articleWriter = objectMapper.writerFor(ArticleDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void exportNdjson(OutputStream outputStream) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // Lit le cache de second niveau sans y verser tout le corpus, qui en chasserait les entrées utiles
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+            try (Stream<Article> articles = articleRepository.streamAllByOrderById();
+                 JsonGenerator generator = articleWriter.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                List<Article> chunk = new ArrayList<>(ArticleRepository.EXPORT_FETCH_SIZE);
+                Iterator<Article> iterator = articles.iterator();
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    // Pas de hasNext() avant l'écriture : la ligne suivante serait chargée puis détachée par clear()
+                    if (chunk.size() == ArticleRepository.EXPORT_FETCH_SIZE) {
+                        writeChunk(chunk, generator);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    writeChunk(chunk, generator);
+                }
+            } catch (IOException e) {
+                // Le plus souvent, le client a fermé la connexion
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeChunk(List<Article> chunk, JsonGenerator generator) throws IOException {
+        // Le premier accès initialise par lots les collections de tous les articles de la tranche
+        for (Article article : chunk) {
+            Hibernate.initialize(article.getImages());
+            Hibernate.initialize(article.getArticleAuthors());
+        }
+        for (Article article : chunk) {
+            articleWriter.writeValue(generator, ArticleMapper.toDTO(article));
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        entityManager.clear();
+    }
+}
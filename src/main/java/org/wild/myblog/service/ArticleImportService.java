@@ -0,0 +1,297 @@
+package org.wild.myblog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.wild.myblog.dto.BulkImportErrorDTO;
+import org.wild.myblog.dto.BulkImportResultDTO;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.model.*;
+import org.wild.myblog.repository.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Import d'articles en masse (POST /articles/bulk), depuis un tableau JSON ou un flux NDJSON.
+ *
+ * Le flux est lu par tranches de CHUNK_SIZE articles : pour chaque tranche, catégories, images et auteurs
+ * référencés sont chargés en une fois par type (depuis le cache de second niveau, la base pour les manquants),
+ * puis les articles valides sont insérés, en lots JDBC, dans la transaction qui a chargé ces références. Un article
+ * invalide est signalé avec sa position sans interrompre l'import.
+ */
+@Service
+public class ArticleImportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_TITLE_LENGTH = 50;
+    private static final int MAX_CONTRIBUTION_LENGTH = 50;
+
+    private final ObjectMapper objectMapper;
+    private final ArticleRepository articleRepository;
+    private final ImageRepository imageRepository;
+    private final ArticleAuthorRepository articleAuthorRepository;
+    private final ReferenceLookup referenceLookup;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ArticleImportService(ObjectMapper objectMapper, ArticleRepository articleRepository, ImageRepository imageRepository, ArticleAuthorRepository articleAuthorRepository, ReferenceLookup referenceLookup, PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher) {
+        this.objectMapper = objectMapper;
+        this.articleRepository = articleRepository;
+        this.imageRepository = imageRepository;
+        this.articleAuthorRepository = articleAuthorRepository;
+        this.referenceLookup = referenceLookup;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    private record PendingArticle(int index, Article article, List<Image> newImages) {
+    }
+
+    public BulkImportResultDTO importArticles(InputStream input) throws IOException {
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        List<Article> chunk = new ArrayList<>(CHUNK_SIZE);
+        int index = 0;
+        int chunkStart = 0;
+        // readValues accepte aussi bien un tableau JSON qu'une suite de documents (NDJSON). Chaque élément est
+        // d'abord lu comme un arbre : une erreur de mapping sur un article ne peut pas décaler la lecture des suivants.
+        try (MappingIterator<JsonNode> items = objectMapper.readerFor(JsonNode.class).readValues(input)) {
+            while (true) {
+                JsonNode item;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    item = items.nextValue();
+                } catch (JsonProcessingException e) {
+                    // JSON mal formé : impossible de retrouver le début de l'élément suivant
+                    result.getErrors().add(new BulkImportErrorDTO(index, "Malformed JSON, import stopped: " + e.getOriginalMessage()));
+                    break;
+                }
+                if (!item.isObject()) {
+                    chunk.add(null);
+                    result.getErrors().add(new BulkImportErrorDTO(index, "Invalid article: expected a JSON object"));
+                } else {
+                    try {
+                        chunk.add(objectMapper.treeToValue(item, Article.class));
+                    } catch (JsonProcessingException e) {
+                        chunk.add(null);
+                        result.getErrors().add(new BulkImportErrorDTO(index, "Invalid article: " + e.getOriginalMessage()));
+                    }
+                }
+                index++;
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunkStart, chunk, result);
+                    chunkStart = index;
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunkStart, chunk, result);
+        }
+        result.setReceived(index);
+        result.getErrors().sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return result;
+    }
+
+    private void importChunk(int chunkStart, List<Article> chunk, BulkImportResultDTO result) {
+        List<PendingArticle> pendingArticles = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            // null : déjà signalé à la lecture
+            if (chunk.get(i) != null) {
+                pendingArticles.add(new PendingArticle(chunkStart + i, chunk.get(i), new ArrayList<>()));
+            }
+        }
+        if (pendingArticles.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<BulkImportErrorDTO> errors = new ArrayList<>();
+            int imported = transactionTemplate.execute(status -> resolveAndPersist(pendingArticles, errors));
+            result.getErrors().addAll(errors);
+            result.setImported(result.getImported() + imported);
+        } catch (RuntimeException chunkFailure) {
+            // Une contrainte a échoué en base : on rejoue la tranche article par article pour isoler le fautif
+            entityManager.clear();
+            for (PendingArticle pending : pendingArticles) {
+                try {
+                    resetGeneratedIds(pending);
+                    List<BulkImportErrorDTO> errors = new ArrayList<>();
+                    int imported = transactionTemplate.execute(status -> resolveAndPersist(List.of(pending), errors));
+                    result.getErrors().addAll(errors);
+                    result.setImported(result.getImported() + imported);
+                } catch (RuntimeException itemFailure) {
+                    entityManager.clear();
+                    result.getErrors().add(new BulkImportErrorDTO(pending.index(), "Rejected by the database: "
+                            + NestedExceptionUtils.getMostSpecificCause(itemFailure).getMessage()));
+                }
+            }
+        } finally {
+            // La mémoire reste constante quelle que soit la taille de l'import
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Dans la transaction d'écriture : catégories, images et auteurs sont chargés par l'EntityManager qui insère
+     * les articles. Les articles invalides sont ajoutés à errors, les autres insérés ; renvoie leur nombre.
+     */
+    private int resolveAndPersist(List<PendingArticle> pendingArticles, List<BulkImportErrorDTO> errors) {
+        List<Article> articles = pendingArticles.stream().map(PendingArticle::article).toList();
+        Map<Long, Category> categories = findAllById(articles.stream()
+                .map(Article::getCategory).filter(Objects::nonNull).map(Category::getId), ids -> referenceLookup.findAllById(Category.class, ids), Category::getId);
+        Map<Long, Image> images = findAllById(articles.stream()
+                .filter(article -> article.getImages() != null).flatMap(article -> article.getImages().stream())
+                .filter(Objects::nonNull).map(Image::getId), ids -> referenceLookup.findAllById(Image.class, ids), Image::getId);
+        Map<Long, Author> authors = findAllById(articles.stream()
+                .filter(article -> article.getArticleAuthors() != null).flatMap(article -> article.getArticleAuthors().stream())
+                .filter(articleAuthor -> articleAuthor != null && articleAuthor.getAuthor() != null)
+                .map(articleAuthor -> articleAuthor.getAuthor().getId()), ids -> referenceLookup.findAllById(Author.class, ids), Author::getId);
+
+        List<PendingArticle> valid = new ArrayList<>();
+        for (PendingArticle pending : pendingArticles) {
+            pending.newImages().clear();
+            String error = resolve(pending.article(), categories, images, authors, pending.newImages());
+            if (error != null) {
+                errors.add(new BulkImportErrorDTO(pending.index(), error));
+            } else {
+                valid.add(pending);
+            }
+        }
+        persist(valid);
+        return valid.size();
+    }
+
+    private void persist(List<PendingArticle> pendingArticles) {
+        List<Image> newImages = new ArrayList<>();
+        List<Article> articles = new ArrayList<>();
+        List<ArticleAuthor> articleAuthors = new ArrayList<>();
+        for (PendingArticle pending : pendingArticles) {
+            newImages.addAll(pending.newImages());
+            articles.add(pending.article());
+            articleAuthors.addAll(pending.article().getArticleAuthors());
+        }
+        imageRepository.saveAll(newImages);
+        articleRepository.saveAll(articles);
+        articleAuthorRepository.saveAll(articleAuthors);
+        // Diffusés après le commit de la transaction
+        for (Article article : articles) {
+            eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED, article));
+        }
+    }
+
+    // Ids attribués par la transaction annulée : les nouvelles images doivent être de nouveau reconnues comme telles
+    private static void resetGeneratedIds(PendingArticle pending) {
+        pending.article().setId(null);
+        pending.newImages().forEach(image -> image.setId(null));
+        pending.article().getArticleAuthors().forEach(articleAuthor -> articleAuthor.setId(null));
+    }
+
+    /**
+     * Remplace les références reçues (simples ids) par les entités chargées, ou renvoie la raison du rejet.
+     */
+    private static String resolve(Article article, Map<Long, Category> categories, Map<Long, Image> images, Map<Long, Author> authors, List<Image> newImages) {
+        if (article.getTitle() == null || article.getTitle().isBlank()) {
+            return "title is required";
+        }
+        if (article.getTitle().length() > MAX_TITLE_LENGTH) {
+            return "title exceeds " + MAX_TITLE_LENGTH + " characters";
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        article.setId(null);
+        article.setCreatedAt(now);
+        article.setUpdatedAt(now);
+
+        if (article.getCategory() != null) {
+            Category category = categories.get(article.getCategory().getId());
+            if (category == null) {
+                return "unknown category " + article.getCategory().getId();
+            }
+            article.setCategory(category);
+        }
+
+        List<Image> resolvedImages = new ArrayList<>();
+        if (article.getImages() != null) {
+            for (Image image : article.getImages()) {
+                if (image == null) {
+                    continue;
+                }
+                if (image.getId() != null) {
+                    Image existingImage = images.get(image.getId());
+                    if (existingImage == null) {
+                        return "unknown image " + image.getId();
+                    }
+                    resolvedImages.add(existingImage);
+                } else if (image.getUrl() == null || image.getUrl().isBlank()) {
+                    return "new images need an url";
+                } else {
+                    image.setContentHash(null);
+                    image.setContentType(null);
+                    image.setContentLength(null);
+                    newImages.add(image);
+                    resolvedImages.add(image);
+                }
+            }
+        }
+        article.setImages(resolvedImages);
+
+        List<ArticleAuthor> resolvedArticleAuthors = new ArrayList<>();
+        Set<Long> seenAuthorIds = new HashSet<>();
+        if (article.getArticleAuthors() != null) {
+            for (ArticleAuthor articleAuthor : article.getArticleAuthors()) {
+                if (articleAuthor == null || articleAuthor.getAuthor() == null || articleAuthor.getAuthor().getId() == null) {
+                    return "authors need an id";
+                }
+                Author author = authors.get(articleAuthor.getAuthor().getId());
+                if (author == null) {
+                    return "unknown author " + articleAuthor.getAuthor().getId();
+                }
+                if (!seenAuthorIds.add(author.getId())) {
+                    return "author " + author.getId() + " is listed twice";
+                }
+                String contribution = articleAuthor.getContribution();
+                if (contribution == null || contribution.isBlank() || contribution.length() > MAX_CONTRIBUTION_LENGTH) {
+                    return "contribution of author " + author.getId() + " must be 1 to " + MAX_CONTRIBUTION_LENGTH + " characters";
+                }
+                articleAuthor.setId(null);
+                articleAuthor.setAuthor(author);
+                articleAuthor.setArticle(article);
+                resolvedArticleAuthors.add(articleAuthor);
+            }
+        }
+        article.setArticleAuthors(resolvedArticleAuthors);
+        return null;
+    }
+
+    private static <T> Map<Long, T> findAllById(Stream<Long> ids, Function<Set<Long>, List<T>> finder, Function<T, Long> idOf) {
+        Set<Long> distinctIds = ids.filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distinctIds.isEmpty()) {
+            return Map.of();
+        }
+        return finder.apply(distinctIds).stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+}
@@ -0,0 +1,130 @@
+package org.wild.myblog.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Fichiers des images envoyées au blog, rangés sur le disque local sous leur empreinte SHA-256 (root/ab/abcd…).
+ *
+ * Le contenu reçu est écrit dans root/incoming en calculant l'empreinte au fil de la lecture, sans jamais être
+ * gardé entier en mémoire, puis déplacé à sa place définitive par un renommage atomique. Un contenu déjà présent
+ * n'est pas écrit une seconde fois. Un fichier n'est jamais modifié une fois en place : son URL
+ * (/images/files/{empreinte}.{extension}) peut être gardée indéfiniment par les navigateurs et les proxys.
+ *
+ * Les fichiers ne sont pas supprimés avec les images : plusieurs images peuvent partager le même contenu.
+ */
+@Component
+public class ImageContentStore {
+
+    public static final String URL_PREFIX = "/images/files/";
+
+    // Types acceptés, avec l'extension portée par l'URL (le type servi en est déduit, sans lecture en base).
+    // Pas de SVG : servi depuis le domaine du blog, il pourrait exécuter du script.
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            MediaType.IMAGE_PNG_VALUE, "png",
+            MediaType.IMAGE_JPEG_VALUE, "jpg",
+            MediaType.IMAGE_GIF_VALUE, "gif",
+            "image/webp", "webp",
+            "image/avif", "avif");
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path incoming;
+    private final long maxSize;
+
+    public record StoredContent(String hash, long size) {
+    }
+
+    public ImageContentStore(@Value("${blog.images.storage-dir:data/images}") Path root, @Value("${blog.images.max-size:10MB}") DataSize maxSize) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+        this.maxSize = maxSize.toBytes();
+        Files.createDirectories(incoming);
+    }
+
+    /**
+     * Enregistre le contenu lu jusqu'à la fin du flux et renvoie son empreinte, ou null si le flux est vide.
+     */
+    public StoredContent store(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temporary = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            long size = 0;
+            byte[] buffer = new byte[64 * 1024];
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new ImageTooLargeException(maxSize);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                return null;
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                // Deux envois simultanés du même contenu remplacent le fichier par un identique
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredContent(hash, size);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Fichier correspondant à l'empreinte, ou null s'il n'existe pas.
+     */
+    public Path find(String hash) {
+        if (!HASH.matcher(hash).matches()) {
+            return null;
+        }
+        Path path = pathOf(hash);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    public static String urlOf(String hash, MediaType contentType) {
+        return URL_PREFIX + hash + "." + extensionOf(contentType);
+    }
+
+    public static boolean isSupported(MediaType contentType) {
+        return contentType != null && extensionOf(contentType) != null;
+    }
+
+    public static String extensionOf(MediaType contentType) {
+        return EXTENSIONS.get(contentType.getType() + "/" + contentType.getSubtype());
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
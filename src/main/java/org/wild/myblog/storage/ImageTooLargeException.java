@@ -0,0 +1,15 @@
+package org.wild.myblog.storage;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Levée pendant la lecture d'un envoi d'image qui dépasse la taille maximale : la lecture s'arrête là.
+ */
+@ResponseStatus(value = HttpStatus.PAYLOAD_TOO_LARGE, reason = "Image too large")
+public class ImageTooLargeException extends RuntimeException {
+
+    public ImageTooLargeException(long maxSize) {
+        super("Image exceeds " + maxSize + " bytes");
+    }
+}
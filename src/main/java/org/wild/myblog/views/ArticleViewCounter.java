@@ -0,0 +1,217 @@
+package org.wild.myblog.views;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.wild.myblog.datasource.ReadRouting;
+import org.wild.myblog.dto.ArticleSummaryDTO;
+import org.wild.myblog.dto.ArticleViewsDTO;
+import org.wild.myblog.event.ArticleChangedEvent;
+import org.wild.myblog.event.ArticleReferencesChangedEvent;
+import org.wild.myblog.mapper.ArticleSummaryMapper;
+import org.wild.myblog.repository.ArticleViewCountRepository;
+import org.wild.myblog.repository.ArticleViewRanking;
+import org.wild.myblog.web.ResourceVersion;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compteurs de lectures des articles, écrits en base en différé.
+ *
+ * GET /articles/{id} ne fait qu'incrémenter un LongAdder par article, en mémoire : pas d'écriture SQL ni de
+ * contention entre lecteurs d'un même article. Une tâche planifiée ajoute les lectures accumulées en base,
+ * en un lot d'upserts, dès que flush-threshold lectures sont en attente ou au plus tard toutes les flush-interval ;
+ * l'arrêt de l'application écrit les dernières. Le classement servi par GET /articles/most-viewed est relu
+ * après chaque écriture et gardé en mémoire.
+ *
+ * Les compteurs ne sont jamais retirés de la table en mémoire (un par article lu) : sumThenReset() remet chaque
+ * cellule à zéro atomiquement, une lecture concurrente est donc comptée dans cette écriture ou dans la suivante.
+ */
+@Component
+public class ArticleViewCounter implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleViewCounter.class);
+
+    private final ArticleViewCountRepository articleViewCountRepository;
+    private final ArticleSummaryMapper articleSummaryMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final long flushThreshold;
+    private final long flushIntervalNanos;
+    private final int mostViewedCapacity;
+
+    private final Map<Long, LongAdder> pendingByArticleId = new ConcurrentHashMap<>();
+    private final LongAdder pendingViews = new LongAdder();
+    // Écriture en base et rechargement du classement, sans épingler de thread virtuel (voir LatestArticlesFeed)
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong generations = new AtomicLong();
+    private volatile long lastFlushNanos = System.nanoTime();
+    private volatile boolean mostViewedStale;
+    private volatile MostViewedSnapshot mostViewed;
+
+    public ArticleViewCounter(
+            ArticleViewCountRepository articleViewCountRepository,
+            ArticleSummaryMapper articleSummaryMapper,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${blog.article-views.flush-threshold:10000}") long flushThreshold,
+            @Value("${blog.article-views.flush-interval:PT30S}") Duration flushInterval,
+            @Value("${blog.article-views.most-viewed-capacity:20}") int mostViewedCapacity
+    ) {
+        this.articleViewCountRepository = articleViewCountRepository;
+        this.articleSummaryMapper = articleSummaryMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Appelé aussi après le commit d'une écriture : transactions propres plutôt que celle qui vient de se terminer
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.flushThreshold = flushThreshold;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.mostViewedCapacity = mostViewedCapacity;
+        this.mostViewed = publish(List.of());
+    }
+
+    public void record(Long articleId) {
+        pendingByArticleId.computeIfAbsent(articleId, id -> new LongAdder()).increment();
+        pendingViews.increment();
+    }
+
+    public MostViewedSnapshot mostViewed() {
+        return mostViewed;
+    }
+
+    public int mostViewedCapacity() {
+        return mostViewedCapacity;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reloadMostViewed();
+    }
+
+    @Override
+    public void destroy() {
+        // Appelé avant la fermeture de la DataSource, dont ce composant dépend
+        flush();
+    }
+
+    @Scheduled(fixedDelayString = "${blog.article-views.check-interval:PT1S}")
+    public void flushIfDue() {
+        if (pendingViews.sum() >= flushThreshold || System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+            flush();
+        } else if (mostViewedStale) {
+            reloadMostViewed();
+        }
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            lastFlushNanos = System.nanoTime();
+            // Ne sert qu'au déclenchement : une lecture comptée pendant la remise à zéro peut y échapper, pas à l'écriture
+            pendingViews.reset();
+            List<Object[]> increments = new ArrayList<>();
+            for (Map.Entry<Long, LongAdder> pending : pendingByArticleId.entrySet()) {
+                long views = pending.getValue().sumThenReset();
+                if (views > 0) {
+                    increments.add(new Object[]{pending.getKey(), views});
+                }
+            }
+            if (increments.isEmpty()) {
+                if (mostViewedStale) {
+                    reloadMostViewed();
+                }
+                return;
+            }
+            try {
+                jdbcTemplate.batchUpdate(ArticleViewCountRepository.INCREMENT_SQL, increments);
+            } catch (RuntimeException e) {
+                // Les lectures sont remises en attente pour la prochaine écriture
+                for (Object[] increment : increments) {
+                    restore((Long) increment[0], (Long) increment[1]);
+                }
+                log.warn("Écriture des compteurs de lectures impossible, nouvel essai au prochain passage", e);
+                return;
+            }
+            log.debug("Lectures de {} article(s) écrites en base", increments.size());
+            reloadMostViewed();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void restore(Long articleId, long views) {
+        LongAdder pending = pendingByArticleId.get(articleId);
+        if (pending != null) {
+            pending.add(views);
+            pendingViews.add(views);
+        }
+    }
+
+    private void reloadMostViewed() {
+        flushLock.lock();
+        try {
+            mostViewedStale = false;
+            // Relu sur la primaire : un réplica n'aurait peut-être pas encore les compteurs qui viennent d'être écrits
+            List<ArticleViewsDTO> entries = ReadRouting.onPrimary(() -> readOnlyTransaction.execute(status -> {
+                List<ArticleViewRanking> rankings = articleViewCountRepository.findMostViewed(Limit.of(mostViewedCapacity));
+                List<ArticleSummaryDTO> summaries = articleSummaryMapper.toDTOs(rankings);
+                List<ArticleViewsDTO> views = new ArrayList<>(rankings.size());
+                for (int i = 0; i < rankings.size(); i++) {
+                    views.add(new ArticleViewsDTO(summaries.get(i), rankings.get(i).getViews()));
+                }
+                return views;
+            }));
+            mostViewed = publish(entries);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Long articleId = event.article().getId();
+        if (event.type() == ArticleChangedEvent.Type.DELETED) {
+            pendingByArticleId.remove(articleId);
+            // Une écriture en cours peut encore recréer la ligne : la jointure de findMostViewed l'écarte
+            writeTransaction.executeWithoutResult(status -> articleViewCountRepository.deleteByArticleId(articleId));
+        }
+        // Rechargé au prochain passage de la tâche planifiée, pas à chaque écriture d'article
+        if (event.type() != ArticleChangedEvent.Type.CREATED && mostViewed.contains(articleId)) {
+            mostViewedStale = true;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleReferencesChanged(ArticleReferencesChangedEvent event) {
+        MostViewedSnapshot current = mostViewed;
+        if (event.articleIds().stream().anyMatch(current::contains)) {
+            mostViewedStale = true;
+        }
+    }
+
+    private MostViewedSnapshot publish(List<ArticleViewsDTO> entries) {
+        return new MostViewedSnapshot(List.copyOf(entries), ResourceVersion.of(LocalDateTime.now(), generations.incrementAndGet()));
+    }
+}
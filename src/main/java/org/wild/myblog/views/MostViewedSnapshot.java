@@ -0,0 +1,25 @@
+package org.wild.myblog.views;
+
+import org.wild.myblog.dto.ArticleViewsDTO;
+import org.wild.myblog.web.ResourceVersion;
+
+import java.util.List;
+
+/**
+ * Classement publié par {@link ArticleViewCounter}, du plus lu au moins lu, jamais modifié après construction.
+ */
+public record MostViewedSnapshot(List<ArticleViewsDTO> entries, ResourceVersion version) {
+
+    public boolean contains(Long articleId) {
+        for (ArticleViewsDTO entry : entries) {
+            if (entry.getArticle().getId().equals(articleId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<ArticleViewsDTO> top(int limit) {
+        return entries.stream().limit(limit).toList();
+    }
+}
@@ -0,0 +1,37 @@
+package org.wild.myblog.web;
+
+import org.springframework.util.DigestUtils;
+import org.wild.myblog.repository.VersionStamp;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validateurs HTTP d'une ressource : un ETag fort et une date Last-Modified.
+ *
+ * Les deux sont calculés à partir des mêmes éléments de version (dates de modification, nombres et
+ * identifiants maximaux des lignes liées), que les contrôleurs lisent avec une requête agrégée
+ * plutôt qu'en chargeant et sérialisant la ressource.
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+    public static ResourceVersion from(VersionStamp stamp) {
+        return of(stamp.getLastModified(), stamp.getCount(), stamp.getRelatedLastModified(), stamp.getRelatedCount(), stamp.getRelatedMaxId());
+    }
+
+    public static ResourceVersion of(Object... parts) {
+        StringBuilder fingerprint = new StringBuilder();
+        LocalDateTime lastModified = null;
+        for (Object part : parts) {
+            fingerprint.append(part).append('|');
+            if (part instanceof LocalDateTime dateTime && (lastModified == null || dateTime.isAfter(lastModified))) {
+                lastModified = dateTime;
+            }
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        // -1 : pas de Last-Modified, seul l'ETag sera envoyé
+        long lastModifiedMillis = lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new ResourceVersion(etag, lastModifiedMillis);
+    }
+}
@@ -1,13 +1,126 @@
 package org.wild.myblog;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wild.myblog.model.Article;
+import org.wild.myblog.model.ArticleAuthor;
+import org.wild.myblog.model.Author;
+import org.wild.myblog.model.Category;
+import org.wild.myblog.model.Image;
+import org.wild.myblog.repository.ArticleAuthorRepository;
+import org.wild.myblog.repository.ArticleRepository;
+import org.wild.myblog.repository.AuthorRepository;
+import org.wild.myblog.repository.CategoryRepository;
+import org.wild.myblog.repository.ImageRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.wild.myblog.jdbc.QueryCountResultMatchers.queries;
 
 @SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
 class MyBlogApplicationTests {
 
+	private static final int CATEGORIES = 4;
+	private static final int ARTICLES = 40;
+	// Plusieurs images et auteurs par article : un chargement article par article dépasserait le budget
+	private static final int IMAGES_PER_ARTICLE = 3;
+	private static final int AUTHORS_PER_ARTICLE = 3;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ArticleRepository articleRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private ImageRepository imageRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private ArticleAuthorRepository articleAuthorRepository;
+
+	@BeforeEach
+	void setUp() {
+		if (articleRepository.count() > 0) {
+			return;
+		}
+		List<Category> categories = new ArrayList<>();
+		for (int i = 0; i < CATEGORIES; i++) {
+			Category category = new Category();
+			category.setName("Catégorie " + i);
+			categories.add(categoryRepository.save(category));
+		}
+		List<Author> authors = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Author author = new Author();
+			author.setFirstname("Prénom" + i);
+			author.setLastname("Nom" + i);
+			authors.add(authorRepository.save(author));
+		}
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+		for (int i = 0; i < ARTICLES; i++) {
+			List<Image> images = new ArrayList<>();
+			for (int j = 0; j < IMAGES_PER_ARTICLE; j++) {
+				Image image = new Image();
+				image.setUrl("https://example.org/" + i + "-" + j + ".png");
+				images.add(image);
+			}
+			Article article = new Article();
+			article.setTitle("Article " + i);
+			article.setContent("Contenu de l'article " + i);
+			article.setCreatedAt(now.minusMinutes(i));
+			article.setUpdatedAt(now.minusMinutes(i));
+			article.setCategory(categories.get(i % CATEGORIES));
+			article.setImages(imageRepository.saveAll(images));
+			Article savedArticle = articleRepository.save(article);
+			for (int j = 0; j < AUTHORS_PER_ARTICLE; j++) {
+				ArticleAuthor articleAuthor = new ArticleAuthor();
+				articleAuthor.setArticle(savedArticle);
+				articleAuthor.setAuthor(authors.get((i + j * 3) % authors.size()));
+				articleAuthor.setContribution("Rédaction");
+				articleAuthorRepository.save(articleAuthor);
+			}
+		}
+	}
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void categoryMenuStaysWithinItsQueryBudget() throws Exception {
+		mockMvc.perform(get("/categories"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(CATEGORIES))
+				.andExpect(queries().atMost(1));
+	}
+
+	@Test
+	void articlePageStaysWithinItsQueryBudget() throws Exception {
+		mockMvc.perform(get("/articles?size=100"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(ARTICLES))
+				.andExpect(jsonPath("$.items[0].imageUrls.length()").value(IMAGES_PER_ARTICLE))
+				.andExpect(jsonPath("$.items[0].authors.length()").value(AUTHORS_PER_ARTICLE))
+				.andExpect(queries().atMost(4));
+	}
+
 }
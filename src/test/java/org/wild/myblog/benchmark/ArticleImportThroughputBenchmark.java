@@ -0,0 +1,101 @@
+package org.wild.myblog.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wild.myblog.model.Author;
+import org.wild.myblog.model.Category;
+import org.wild.myblog.repository.ArticleRepository;
+import org.wild.myblog.repository.AuthorRepository;
+import org.wild.myblog.repository.CategoryRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compare l'import de N articles un par un (POST /articles) et en masse (POST /articles/bulk, NDJSON).
+ * Hors de la suite par défaut (le nom ne finit pas par Tests) ; à lancer explicitement :
+ *
+ *   mvn test -Dtest=ArticleImportThroughputBenchmark -Dbenchmark.articles=5000
+ *
+ * Les chiffres obtenus sur H2 en mémoire ne donnent qu'un ordre de grandeur : l'écart se creuse sur MySQL,
+ * où chaque aller-retour réseau économisé par les lots JDBC compte.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext
+class ArticleImportThroughputBenchmark {
+
+    private static final int ARTICLES = Integer.getInteger("benchmark.articles", 2000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Test
+    void compareSingleAndBulkImport() throws Exception {
+        Category category = new Category();
+        category.setName("Benchmark");
+        category = categoryRepository.save(category);
+        Author author = new Author();
+        author.setFirstname("Bench");
+        author.setLastname("Mark");
+        author = authorRepository.save(author);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < ARTICLES; i++) {
+            mockMvc.perform(post("/articles").contentType(MediaType.APPLICATION_JSON)
+                            .content(articleJson("Unitaire " + i, category.getId(), author.getId())))
+                    .andExpect(status().isCreated());
+        }
+        report("POST /articles", System.nanoTime() - start, statistics);
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < ARTICLES; i++) {
+            ndjson.append(articleJson("En masse " + i, category.getId(), author.getId())).append('\n');
+        }
+        statistics.clear();
+        start = System.nanoTime();
+        mockMvc.perform(post("/articles/bulk").contentType(MediaType.APPLICATION_NDJSON).content(ndjson.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(ARTICLES))
+                .andExpect(jsonPath("$.errors").isEmpty());
+        report("POST /articles/bulk", System.nanoTime() - start, statistics);
+
+        assertThat(articleRepository.count()).isEqualTo(2L * ARTICLES);
+    }
+
+    private static String articleJson(String title, Long categoryId, Long authorId) {
+        return """
+                {"title":"%s","content":"Contenu de l'article %s","category":{"id":%d},"images":[{"url":"https://example.org/%s.png"}],"articleAuthors":[{"author":{"id":%d},"contribution":"Rédaction"}]}"""
+                .formatted(title, title, categoryId, title.replace(' ', '-'), authorId);
+    }
+
+    private static void report(String label, long elapsedNanos, Statistics statistics) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%-20s %6d articles en %6.2f s -> %8.0f articles/s, %6d requêtes préparées%n",
+                label, ARTICLES, seconds, ARTICLES / seconds, statistics.getPrepareStatementCount());
+    }
+}
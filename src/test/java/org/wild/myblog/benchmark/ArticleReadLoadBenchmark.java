@@ -0,0 +1,159 @@
+package org.wild.myblog.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.wild.myblog.repository.ArticleRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Charge les endpoints de lecture des articles avec de nombreux clients concurrents, à travers un vrai serveur
+ * Tomcat, et affiche le débit et les latences. Les deux sous-classes ne diffèrent que par le modèle de threads :
+ *
+ *   mvn test -Dtest='*ThreadArticleReadBenchmark'
+ *
+ * Par défaut la base est la base H2 en mémoire des tests, où une requête SQL ne bloque presque jamais. Pour
+ * mesurer l'effet des threads virtuels sur des appels JDBC réellement bloquants, pointer sur une base MySQL
+ * locale (vide, elle est remplie au premier lancement) :
+ *
+ *   mvn test -Dtest='*ThreadArticleReadBenchmark' \
+ *       -Dspring.datasource.url='jdbc:mysql://localhost:3306/myblog_bench?createDatabaseIfNotExist=true' \
+ *       -Dspring.datasource.username=root -Dspring.datasource.password=... \
+ *       -Dbenchmark.clients=400 -Dbenchmark.duration=PT30S
+ *
+ * Ajouter -DargLine=-Djdk.tracePinnedThreads=short pour afficher les threads virtuels épinglés.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+abstract class ArticleReadLoadBenchmark {
+
+    private static final int ARTICLES = Integer.getInteger("benchmark.articles", 2000);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 200);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("benchmark.warmup", "PT5S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("benchmark.duration", "PT20S"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void articleReadEndpoints() throws Exception {
+        List<Long> articleIds = seed();
+
+        run(WARMUP, articleIds);
+        Result result = run(DURATION, articleIds);
+
+        System.out.printf("%s : %d clients, %d requêtes en %ds -> %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d erreurs%n",
+                getClass().getSimpleName(), CLIENTS, result.latencies().length, DURATION.toSeconds(),
+                result.latencies().length / (double) DURATION.toSeconds(),
+                result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors());
+        assertThat(result.errors()).isZero();
+    }
+
+    private List<Long> seed() throws Exception {
+        if (articleRepository.count() < ARTICLES) {
+            StringBuilder ndjson = new StringBuilder();
+            for (int i = 0; i < ARTICLES; i++) {
+                ndjson.append("{\"title\":\"Article ").append(i).append("\",\"content\":\"")
+                        .append("Contenu de l'article de test numéro ").append(i).append(". ".repeat(200))
+                        .append("\",\"images\":[{\"url\":\"https://example.org/").append(i).append(".png\"}]}\n");
+            }
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri("/articles/bulk"))
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        return articleRepository.findAll().stream().map(article -> article.getId()).toList();
+    }
+
+    private Result run(Duration duration, List<Long> articleIds) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> clients = new ArrayList<>();
+        // Les clients eux-mêmes sont des threads virtuels : le générateur de charge ne doit pas être la limite
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < CLIENTS; client++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        URI uri = nextUri(articleIds);
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uri).GET().build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        List<long[]> perClient = new ArrayList<>();
+        for (Future<long[]> client : clients) {
+            perClient.add(client.get());
+        }
+        long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(latencies, errors.get());
+    }
+
+    // Mélange des lectures : détail (majoritaire), pages complètes, pages résumées, derniers articles
+    private URI nextUri(List<Long> articleIds) {
+        int draw = ThreadLocalRandom.current().nextInt(10);
+        if (draw < 6) {
+            return uri("/articles/" + articleIds.get(ThreadLocalRandom.current().nextInt(articleIds.size())));
+        } else if (draw < 8) {
+            return uri("/articles?size=20");
+        } else if (draw < 9) {
+            return uri("/articles?size=50&view=summary");
+        }
+        return uri("/articles/latest");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record Result(long[] latencies, long errors) {
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1);
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
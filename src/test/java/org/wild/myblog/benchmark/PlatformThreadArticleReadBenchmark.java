@@ -0,0 +1,8 @@
+package org.wild.myblog.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Pool Tomcat par défaut (200 threads plateforme)
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadArticleReadBenchmark extends ArticleReadLoadBenchmark {
+}
@@ -0,0 +1,8 @@
+package org.wild.myblog.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Un thread virtuel par requête ; le pool de connexions Hikari devient la seule limite
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadArticleReadBenchmark extends ArticleReadLoadBenchmark {
+}
@@ -0,0 +1,102 @@
+package org.wild.myblog.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.wild.myblog.model.Author;
+import org.wild.myblog.repository.AuthorRepository;
+import org.wild.myblog.web.ResourceVersion;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class EncodedResponseCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EncodedResponseCache encodedResponseCache;
+
+    @Test
+    void bodiesAreEncodedOncePerVersionAndReplacedOnWrite() throws Exception {
+        Author author = new Author();
+        author.setFirstname("Ada");
+        author.setLastname("Lovelace");
+        Long id = authorRepository.save(author).getId();
+        EncodedResponseCache.Key key = EncodedResponseCache.Key.author(id);
+
+        MvcResult first = mockMvc.perform(get("/authors/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(jsonPath("$.firstname").value("Ada"))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        ResourceVersion version = ResourceVersion.from(authorRepository.findVersionById(id).orElseThrow());
+        EncodedResponse encoded = encodedResponseCache.find(key, version);
+        assertThat(encoded).isNotNull();
+        assertThat(first.getResponse().getContentAsByteArray()).isEqualTo(encoded.json());
+
+        // Lecture suivante : le même corps, sans nouvel encodage
+        mockMvc.perform(get("/authors/" + id)).andExpect(status().isOk());
+        assertThat(encodedResponseCache.find(key, version)).isSameAs(encoded);
+        mockMvc.perform(get("/authors/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/authors/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstname\":\"Augusta\",\"lastname\":\"Lovelace\"}"))
+                .andExpect(status().isOk());
+        assertThat(encodedResponseCache.find(key, version)).isNull();
+        mockMvc.perform(get("/authors/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstname").value("Augusta"));
+    }
+
+    @Test
+    void gzipClientsGetTheirOwnVariant() throws Exception {
+        // Assez de catégories pour dépasser le seuil de compression
+        for (int i = 0; i < 40; i++) {
+            mockMvc.perform(post("/categories").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Catégorie " + i + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult identity = mockMvc.perform(get("/categories")).andExpect(status().isOk()).andReturn();
+        MvcResult gzipped = mockMvc.perform(get("/categories").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        String gzipEtag = gzipped.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(gzipEtag).isNotEqualTo(identity.getResponse().getHeader(HttpHeaders.ETAG)).endsWith("-gzip\"");
+        byte[] body = gzipped.getResponse().getContentAsByteArray();
+        assertThat(body.length).isLessThan(identity.getResponse().getContentAsByteArray().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo(identity.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        }
+        mockMvc.perform(get("/categories").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,47 @@
+package org.wild.myblog.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@DirtiesContext
+class MetricsEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusScrapeCoversRoutesHibernateAndThePool() throws Exception {
+        mockMvc.perform(get("/categories")).andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/authors")).andExpect(status().is2xxSuccessful());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .containsPattern("http_server_requests_seconds_count\\{[^}]*uri=\"/categories\"")
+                .containsPattern("http_server_requests_seconds_count\\{[^}]*uri=\"/authors\"")
+                .contains("hibernate_statements_total")
+                .contains("hibernate_second_level_cache_requests_total")
+                .containsPattern("hikaricp_connections_pending\\{[^}]*pool=\"primary\"")
+                .contains("blog_request_sql_statements_count")
+                .doesNotContainPattern("http_server_requests_seconds_count\\{[^}]*uri=\"/actuator");
+    }
+}
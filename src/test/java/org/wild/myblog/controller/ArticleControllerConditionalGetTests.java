@@ -0,0 +1,160 @@
+package org.wild.myblog.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wild.myblog.cache.ArticleDTOCache;
+import org.wild.myblog.cache.EncodedResponseCache;
+import org.wild.myblog.model.Author;
+import org.wild.myblog.model.Category;
+import org.wild.myblog.repository.AuthorRepository;
+import org.wild.myblog.repository.CategoryRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class ArticleControllerConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private ArticleDTOCache articleDTOCache;
+
+    @Autowired
+    private EncodedResponseCache encodedResponseCache;
+
+    private record CreatedArticle(long id, long categoryId, long authorId, long imageId) {
+    }
+
+    // Article complet créé par l'API : catégorie, auteur et image passent par le cache de second niveau
+    private CreatedArticle createArticle() throws Exception {
+        Category category = new Category();
+        category.setName("Catégorie");
+        category = categoryRepository.save(category);
+        Author author = new Author();
+        author.setFirstname("Prénom");
+        author.setLastname("Nom");
+        author = authorRepository.save(author);
+        String image = mockMvc.perform(post("/images").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"url\":\"https://example.org/a.png\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long imageId = objectMapper.readTree(image).get("id").asLong();
+
+        String created = mockMvc.perform(post("/articles").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Article\",\"content\":\"Contenu\",\"category\":{\"id\":" + category.getId() + "},"
+                                + "\"images\":[{\"id\":" + imageId + "}],"
+                                + "\"articleAuthors\":[{\"author\":{\"id\":" + author.getId() + "},\"contribution\":\"Rédaction\"}]}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return new CreatedArticle(objectMapper.readTree(created).get("id").asLong(), category.getId(), author.getId(), imageId);
+    }
+
+    // Comme après une éviction, ou sur un autre nœud : le prochain GET recharge l'article
+    private void evict(long articleId) {
+        articleDTOCache.invalidate(articleId);
+        encodedResponseCache.invalidate(EncodedResponseCache.Key.article(articleId));
+    }
+
+    private String etagOf(long articleId) throws Exception {
+        String etag = mockMvc.perform(get("/articles/" + articleId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+
+    @Test
+    void etagIsTheSameOnADtoCacheHitAndMiss() throws Exception {
+        long articleId = createArticle().id();
+
+        // Premier GET : version lue en base, DTO chargé et mis en cache
+        String filled = etagOf(articleId);
+        // Servi depuis le cache de DTO
+        assertThat(etagOf(articleId)).isEqualTo(filled);
+
+        // Entrées évincées : la version est relue en base, le DTO rechargé (références depuis le cache de second
+        // niveau) ; les deux doivent redonner la même version
+        evict(articleId);
+        mockMvc.perform(get("/articles/" + articleId).header(HttpHeaders.IF_NONE_MATCH, filled))
+                .andExpect(status().isNotModified());
+        assertThat(etagOf(articleId)).isEqualTo(filled);
+        evict(articleId);
+        assertThat(etagOf(articleId)).isEqualTo(filled);
+        assertThat(etagOf(articleId)).isEqualTo(filled);
+    }
+
+    @Test
+    void revalidationAnswers304UntilTheArticleOrOneOfItsReferencesChanges() throws Exception {
+        CreatedArticle article = createArticle();
+        String url = "/articles/" + article.id();
+        String etag = etagOf(article.id());
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"autre\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        mockMvc.perform(put("/categories/" + article.categoryId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Catégorie renommée\"}"))
+                .andExpect(status().isOk());
+        etag = revalidateChanged(url, etag);
+
+        mockMvc.perform(put("/authors/" + article.authorId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstname\":\"Autre\",\"lastname\":\"Nom\"}"))
+                .andExpect(status().isOk());
+        etag = revalidateChanged(url, etag);
+
+        mockMvc.perform(put("/images/" + article.imageId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"url\":\"https://example.org/b.png\"}"))
+                .andExpect(status().isOk());
+        etag = revalidateChanged(url, etag);
+        mockMvc.perform(get(url))
+                .andExpect(jsonPath("$.categoryName").value("Catégorie renommée"))
+                .andExpect(jsonPath("$.authors[0].firstname").value("Autre"))
+                .andExpect(jsonPath("$.imageUrls[0]").value("https://example.org/b.png"));
+
+        mockMvc.perform(put(url).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Nouveau titre\",\"content\":\"Contenu\"}"))
+                .andExpect(status().isOk());
+        revalidateChanged(url, etag);
+    }
+
+    // L'ancien ETag ne revalide plus : 200 avec un nouvel ETag, qui lui revalide
+    private String revalidateChanged(String url, String previousEtag) throws Exception {
+        String etag = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, previousEtag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull().isNotEqualTo(previousEtag);
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        return etag;
+    }
+}
@@ -0,0 +1,218 @@
+package org.wild.myblog.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.wild.myblog.feed.LatestArticlesFeed;
+import org.wild.myblog.model.*;
+import org.wild.myblog.pagination.SearchCursor;
+import org.wild.myblog.repository.*;
+import org.wild.myblog.search.ArticleSearchIndexer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext
+class ArticleControllerQueryCountTests {
+
+    // 1 requête pour la page (catégorie jointe) + 1 pour les images + 1 pour les ArticleAuthor (auteurs joints)
+    private static final long MAX_STATEMENTS_PER_PAGE = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private ArticleAuthorRepository articleAuthorRepository;
+
+    @Autowired
+    private ArticleSearchIndexer articleSearchIndexer;
+
+    @Autowired
+    private LatestArticlesFeed latestArticlesFeed;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (articleRepository.count() > 0) {
+            return;
+        }
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Category category = new Category();
+            category.setName("Catégorie " + i);
+            categories.add(categoryRepository.save(category));
+        }
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Author author = new Author();
+            author.setFirstname("Prénom" + i);
+            author.setLastname("Nom" + i);
+            authors.add(authorRepository.save(author));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 100; i++) {
+            Image first = new Image();
+            first.setUrl("https://example.org/" + i + "-a.png");
+            Image second = new Image();
+            second.setUrl("https://example.org/" + i + "-b.png");
+
+            Article article = new Article();
+            article.setTitle("Article " + i);
+            article.setContent("Contenu de l'article " + i);
+            article.setCreatedAt(now.minusMinutes(i));
+            article.setUpdatedAt(now.minusMinutes(i));
+            article.setCategory(categories.get(i % categories.size()));
+            article.setImages(imageRepository.saveAll(List.of(first, second)));
+            Article savedArticle = articleRepository.save(article);
+
+            for (int j = 0; j < 2; j++) {
+                ArticleAuthor articleAuthor = new ArticleAuthor();
+                articleAuthor.setArticle(savedArticle);
+                articleAuthor.setAuthor(authors.get((i + j * 7) % authors.size()));
+                articleAuthor.setContribution("Rédaction");
+                articleAuthorRepository.save(articleAuthor);
+            }
+        }
+        // Les articles sont insérés directement en base, sans passer par le contrôleur
+        articleSearchIndexer.rebuild();
+        latestArticlesFeed.reload();
+    }
+
+    private long statementsFor(String url, int expectedItems) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(expectedItems))
+                .andExpect(jsonPath("$.items[0].imageUrls.length()").value(2))
+                .andExpect(jsonPath("$.items[0].authors.length()").value(2));
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void listStatementCountDoesNotDependOnPageSize() throws Exception {
+        long smallPage = statementsFor("/articles?size=10", 10);
+        long fullPage = statementsFor("/articles?size=100", 100);
+
+        assertThat(fullPage).isEqualTo(smallPage).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    void searchEndpointsUseTheSameFetchPlan() throws Exception {
+        assertThat(statementsFor("/articles/search-content?searchTerms=Contenu&size=100", 100))
+                .isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+        assertThat(statementsFor("/articles/search-after?searchTerms=2000-01-01T00:00&size=100", 100))
+                .isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    void searchCursorBeyondTheMaximumDepthIsRejected() throws Exception {
+        mockMvc.perform(get("/articles/search-content?searchTerms=Contenu&cursor=" + new SearchCursor(SearchCursor.MAX_OFFSET).encode()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/articles/search-content?searchTerms=Contenu&cursor=" + new SearchCursor(SearchCursor.MAX_OFFSET + 1).encode()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/articles/search-content?searchTerms=Contenu&cursor=" + new SearchCursor(Integer.MAX_VALUE).encode()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void repeatedSummaryPageIsServedFromTheQueryCache() throws Exception {
+        mockMvc.perform(get("/articles?size=15&view=summary")).andExpect(status().isOk());
+
+        statistics.clear();
+        mockMvc.perform(get("/articles?size=15&view=summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(15))
+                .andExpect(jsonPath("$.items[0].authorNames.length()").value(2));
+        // Version, page de résumés et noms d'auteurs viennent du cache de requêtes
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void categoryMenuCostsOneStatement() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].articleCount").value(20))
+                .andExpect(jsonPath("$[0].articles").doesNotExist());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        Long categoryId = categoryRepository.findAll().get(0).getId();
+        statistics.clear();
+        mockMvc.perform(get("/categories/" + categoryId + "/articles?size=10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(10))
+                .andExpect(jsonPath("$.items[0].title").value("Article 0"))
+                .andExpect(jsonPath("$.items[0].authorNames.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+        // La page de résumés, puis les noms d'auteurs
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void latestIsServedFromMemory() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/articles/latest"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].title").value("Article 0"))
+                .andExpect(jsonPath("$[0].authors.length()").value(2));
+        mockMvc.perform(get("/articles/latest?size=30&view=summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(30))
+                .andExpect(jsonPath("$[29].title").value("Article 29"));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void exportStreamsEveryArticleWithChunkedFetches() throws Exception {
+        statistics.clear();
+        MvcResult result = mockMvc.perform(get("/articles/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(100);
+        assertThat(lines[0]).contains("\"imageUrls\":[\"https://example.org/0-a.png\"");
+        // 100 articles tiennent dans une seule tranche : le curseur, puis un lot par collection
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+}
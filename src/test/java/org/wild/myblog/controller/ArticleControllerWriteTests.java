@@ -0,0 +1,105 @@
+package org.wild.myblog.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wild.myblog.model.ArticleAuthor;
+import org.wild.myblog.model.Author;
+import org.wild.myblog.repository.ArticleAuthorRepository;
+import org.wild.myblog.repository.ArticleRepository;
+import org.wild.myblog.repository.AuthorRepository;
+import org.wild.myblog.repository.ImageRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext
+class ArticleControllerWriteTests {
+
+    // Article, auteurs référencés, liens actuels, images actuelles, UPDATE de l'article
+    private static final long MAX_STATEMENTS_FOR_TITLE_EDIT = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ArticleAuthorRepository articleAuthorRepository;
+
+    @Test
+    void editingTheTitleKeepsTheAuthorLinks() throws Exception {
+        List<String> links = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Author author = new Author();
+            author.setFirstname("Prénom" + i);
+            author.setLastname("Nom" + i);
+            author = authorRepository.save(author);
+            links.add("{\"author\":{\"id\":" + author.getId() + "},\"contribution\":\"Rédaction\"}");
+        }
+        String authorsJson = "[" + String.join(",", links) + "]";
+
+        String created = mockMvc.perform(post("/articles").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Avant\",\"content\":\"Contenu\",\"articleAuthors\":" + authorsJson + "}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode article = objectMapper.readTree(created);
+        List<Long> linkIdsBefore = articleAuthorRepository.findAll().stream().map(ArticleAuthor::getId).sorted().toList();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(put("/articles/" + article.get("id").asLong()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Après\",\"content\":\"Contenu\",\"articleAuthors\":" + authorsJson + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Après"))
+                .andExpect(jsonPath("$.authors.length()").value(10));
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS_FOR_TITLE_EDIT);
+        assertThat(articleAuthorRepository.findAll().stream().map(ArticleAuthor::getId).sorted().toList())
+                .isEqualTo(linkIdsBefore);
+    }
+
+    @Test
+    void unknownAuthorRejectsTheWholeArticle() throws Exception {
+        long articlesBefore = articleRepository.count();
+        long imagesBefore = imageRepository.count();
+        mockMvc.perform(post("/articles").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Rejeté\",\"images\":[{\"url\":\"https://example.org/a.png\"}],"
+                                + "\"articleAuthors\":[{\"author\":{\"id\":999999},\"contribution\":\"Rédaction\"}]}"))
+                .andExpect(status().isBadRequest());
+
+        // Rien n'est écrit, pas même la nouvelle image
+        assertThat(articleRepository.count()).isEqualTo(articlesBefore);
+        assertThat(imageRepository.count()).isEqualTo(imagesBefore);
+    }
+}
@@ -0,0 +1,87 @@
+package org.wild.myblog.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deux bases H2 en mémoire jouent la primaire et le réplica ; chacune contient une ligne avec son propre nom.
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists origin (name varchar(20))");
+        jdbcTemplate.execute("delete from origin");
+        jdbcTemplate.update("insert into origin values (?)", name);
+        return dataSource;
+    }
+
+    private JdbcTemplate routedTemplate(Map<String, DataSource> replicas) {
+        routingDataSource = new ReplicaRoutingDataSource(database("primary"), replicas, Duration.ofMinutes(1));
+        return new JdbcTemplate(new LazyConnectionDataSourceProxy(routingDataSource));
+    }
+
+    private static String originOf(JdbcTemplate jdbcTemplate, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select name from origin", String.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadRouting.unpin();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        JdbcTemplate jdbcTemplate = routedTemplate(Map.of("replica", database("replica")));
+
+        assertThat(originOf(jdbcTemplate, true)).isEqualTo("replica");
+        assertThat(originOf(jdbcTemplate, false)).isEqualTo("primary");
+        // Hors transaction : primaire
+        assertThat(jdbcTemplate.queryForObject("select name from origin", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void pinnedThreadReadsFromThePrimary() {
+        JdbcTemplate jdbcTemplate = routedTemplate(Map.of("replica", database("replica")));
+
+        assertThat(ReadRouting.onPrimary(() -> originOf(jdbcTemplate, true))).isEqualTo("primary");
+        assertThat(originOf(jdbcTemplate, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToTheNextOne() {
+        JdbcDataSource unreachable = new JdbcDataSource();
+        // IFEXISTS : la base n'existe pas, chaque connexion est refusée
+        unreachable.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("missing", unreachable);
+        replicas.put("replica", database("replica"));
+        JdbcTemplate jdbcTemplate = routedTemplate(replicas);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(originOf(jdbcTemplate, true)).isEqualTo("replica");
+        }
+
+        // Sans réplica valide, la lecture revient à la primaire
+        JdbcTemplate withoutReplica = routedTemplate(Map.of("missing", unreachable));
+        assertThat(originOf(withoutReplica, true)).isEqualTo("primary");
+    }
+}
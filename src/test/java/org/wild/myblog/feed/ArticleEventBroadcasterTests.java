@@ -0,0 +1,111 @@
+package org.wild.myblog.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// File de 4 trames par client : la reprise à la limite de la file reste testable en quelques articles
+@SpringBootTest(properties = "blog.article-stream.client-buffer=" + ArticleEventBroadcasterTests.CLIENT_BUFFER)
+@AutoConfigureMockMvc
+@DirtiesContext
+class ArticleEventBroadcasterTests {
+
+    static final int CLIENT_BUFFER = 4;
+
+    private static final Pattern EVENT_ID = Pattern.compile("id: (\\S+)\\nevent: created\\ndata: \\{[^\\n]*\"title\":\"Premier\"");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private MvcResult subscribe(String lastEventId) throws Exception {
+        var request = get("/articles/stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private void create(String title) throws Exception {
+        mockMvc.perform(post("/articles").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"content\":\"Contenu\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    // Les trames sont écrites par un autre thread que celui du test
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            String content = stream.getResponse().getContentAsString();
+            if (content.contains(expected)) {
+                return content;
+            }
+            Thread.sleep(50);
+        }
+        return stream.getResponse().getContentAsString();
+    }
+
+    private static String eventIdOf(String content, String title) {
+        Matcher event = Pattern.compile("id: (\\S+)\\nevent: created\\ndata: \\{[^\\n]*\"title\":\"" + title + "\"").matcher(content);
+        assertThat(event.find()).as(content).isTrue();
+        return event.group(1);
+    }
+
+    @Test
+    void resumeAtTheEdgeOfTheClientBufferKeepsTheSubscriber() throws Exception {
+        MvcResult live = subscribe(null);
+        create("Repere");
+        String mark = eventIdOf(awaitContent(live, "Repere"), "Repere");
+        for (int i = 1; i < CLIENT_BUFFER; i++) {
+            create("Manque " + i);
+        }
+        awaitContent(live, "Manque " + (CLIENT_BUFFER - 1));
+
+        // clientBuffer - 1 événements manqués : tous rejoués, et le client reste abonné
+        MvcResult resumed = subscribe(mark);
+        assertThat(awaitContent(resumed, "Manque " + (CLIENT_BUFFER - 1)))
+                .contains("\"title\":\"Manque 1\"").doesNotContain("event: reset");
+
+        // Exactement clientBuffer événements manqués : "reset", sans que le client soit déconnecté
+        create("Dernier manque");
+        awaitContent(live, "Dernier manque");
+        MvcResult full = subscribe(mark);
+        assertThat(awaitContent(full, "event: reset")).contains("event: reset").doesNotContain("Manque 1");
+
+        create("Suivant");
+        assertThat(awaitContent(resumed, "Suivant")).contains("\"title\":\"Suivant\"");
+        assertThat(awaitContent(full, "Suivant")).contains("\"title\":\"Suivant\"");
+    }
+
+    @Test
+    void subscribersReceiveNewArticlesAndResumeFromTheLastEventId() throws Exception {
+        MvcResult live = subscribe(null);
+        create("Premier");
+        String content = awaitContent(live, "Premier");
+        Matcher firstEvent = EVENT_ID.matcher(content);
+        assertThat(firstEvent.find()).as(content).isTrue();
+
+        create("Second");
+        assertThat(awaitContent(live, "Second")).contains("event: created").contains("\"title\":\"Second\"");
+
+        // Reprise : seuls les événements postérieurs au dernier reçu sont rejoués
+        MvcResult resumed = subscribe(firstEvent.group(1));
+        assertThat(awaitContent(resumed, "Second")).contains("\"title\":\"Second\"").doesNotContain("Premier");
+
+        // Identifiant inconnu (autre démarrage) : le client doit tout relire
+        MvcResult unknown = subscribe("ancien-42");
+        assertThat(awaitContent(unknown, "event: reset")).contains("event: reset").doesNotContain("Second");
+    }
+}
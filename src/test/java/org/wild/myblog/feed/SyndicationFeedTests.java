@@ -0,0 +1,98 @@
+package org.wild.myblog.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.w3c.dom.Document;
+import org.wild.myblog.model.Category;
+import org.wild.myblog.repository.CategoryRepository;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.wild.myblog.jdbc.QueryCountResultMatchers.queries;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class SyndicationFeedTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private void create(String title, Category category) throws Exception {
+        String categoryJson = category == null ? "" : ",\"category\":{\"id\":" + category.getId() + "}";
+        mockMvc.perform(post("/articles").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"content\":\"Contenu de " + title + "\"" + categoryJson + "}"))
+                .andExpect(status().isCreated());
+    }
+
+    private static Document parse(byte[] xml) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+    }
+
+    @Test
+    void feedsAreRenderedOnceAndRebuiltWhenAnArticleChanges() throws Exception {
+        Category category = new Category();
+        category.setName("Java");
+        category = categoryRepository.save(category);
+        create("Hors catégorie", null);
+        create("Dans la catégorie", category);
+
+        MvcResult rss = mockMvc.perform(get("/feeds/rss"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/rss+xml;charset=UTF-8"))
+                .andReturn();
+        Document rssDocument = parse(rss.getResponse().getContentAsByteArray());
+        assertThat(rssDocument.getElementsByTagName("item").getLength()).isEqualTo(2);
+        String etag = rss.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Déjà rendu : ni requête SQL ni nouveau rendu, et 304 sur l'ETag
+        mockMvc.perform(get("/feeds/rss").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(queries().exactly(0));
+
+        MvcResult gzipped = mockMvc.perform(get("/feeds/rss").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(rss.getResponse().getContentAsByteArray());
+        }
+        assertThat(gzipped.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+
+        byte[] atomXml = mockMvc.perform(get("/feeds/categories/" + category.getId() + "/atom"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        Document atom = parse(atomXml);
+        assertThat(atom.getDocumentElement().getAttribute("xmlns")).isEqualTo("http://www.w3.org/2005/Atom");
+        assertThat(atom.getElementsByTagName("entry").getLength()).isEqualTo(1);
+        assertThat(atom.getElementsByTagName("entry").item(0).getTextContent()).contains("Dans la catégorie");
+
+        create("Nouveau", null);
+        mockMvc.perform(get("/feeds/rss").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        // Le flux de la catégorie n'a pas bougé
+        mockMvc.perform(get("/feeds/categories/" + category.getId() + "/atom"))
+                .andExpect(queries().exactly(0));
+
+        mockMvc.perform(get("/feeds/categories/999999/rss")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/feeds/json")).andExpect(status().isNotFound());
+    }
+}
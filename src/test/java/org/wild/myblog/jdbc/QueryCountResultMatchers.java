@@ -0,0 +1,41 @@
+package org.wild.myblog.jdbc;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+
+/**
+ * Assertions MockMvc sur le nombre de requêtes SQL d'une requête HTTP, lu dans l'en-tête X-Query-Count
+ * (blog.query-accounting.headers=true dans la configuration de test).
+ *
+ * mockMvc.perform(get("/categories")).andExpect(queries().atMost(1));
+ */
+public final class QueryCountResultMatchers {
+
+    private QueryCountResultMatchers() {
+    }
+
+    public static QueryCountResultMatchers queries() {
+        return new QueryCountResultMatchers();
+    }
+
+    public ResultMatcher atMost(int maxStatements) {
+        return result -> {
+            int statements = statements(result.getResponse().getHeader(QueryAccountingFilter.STATEMENTS_HEADER));
+            assertTrue("Expected at most " + maxStatements + " SQL statements but got " + statements, statements <= maxStatements);
+        };
+    }
+
+    public ResultMatcher exactly(int expectedStatements) {
+        return result -> {
+            int statements = statements(result.getResponse().getHeader(QueryAccountingFilter.STATEMENTS_HEADER));
+            assertTrue("Expected " + expectedStatements + " SQL statements but got " + statements, statements == expectedStatements);
+        };
+    }
+
+    private static int statements(String header) {
+        assertNotNull("No " + QueryAccountingFilter.STATEMENTS_HEADER + " header: is blog.query-accounting.headers enabled?", header);
+        return Integer.parseInt(header);
+    }
+}
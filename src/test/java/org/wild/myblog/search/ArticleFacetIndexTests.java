@@ -0,0 +1,148 @@
+package org.wild.myblog.search;
+
+import org.junit.jupiter.api.Test;
+import org.wild.myblog.pagination.ArticleCursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleFacetIndexTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final ArticleFacetIndex index = new ArticleFacetIndex();
+
+    private static ArticleFacetIndex.Filter filter(Set<Long> categoryIds, Set<Long> authorIds) {
+        return new ArticleFacetIndex.Filter(categoryIds, authorIds, null, null, null);
+    }
+
+    private static List<Long> ids(ArticleFacetIndex.Result result) {
+        return result.page().stream().map(ArticleCursor::id).toList();
+    }
+
+    @Test
+    void countsEachFacetWithoutItsOwnFilter() {
+        index.index(1L, 10L, List.of(100L), NOW);
+        index.index(2L, 10L, List.of(100L, 200L), NOW.minusHours(1));
+        index.index(3L, 20L, List.of(200L), NOW.minusHours(2));
+        index.index(4L, null, List.of(), NOW.minusHours(3));
+
+        ArticleFacetIndex.Result all = index.query(filter(null, null), ArticleCursor.START, 10, 10);
+        assertThat(all.total()).isEqualTo(4);
+        assertThat(ids(all)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(all.categories()).containsExactly(new ArticleFacetIndex.FacetCount(10L, 2), new ArticleFacetIndex.FacetCount(20L, 1));
+
+        // Catégorie 10 cochée : les compteurs de catégories restent ceux de l'ensemble, ceux des auteurs se restreignent
+        ArticleFacetIndex.Result inCategory = index.query(filter(Set.of(10L), null), ArticleCursor.START, 10, 10);
+        assertThat(ids(inCategory)).containsExactly(1L, 2L);
+        assertThat(inCategory.categories()).isEqualTo(all.categories());
+        assertThat(inCategory.authors()).containsExactly(new ArticleFacetIndex.FacetCount(100L, 2), new ArticleFacetIndex.FacetCount(200L, 1));
+
+        // OU dans une facette, ET entre facettes
+        assertThat(ids(index.query(filter(Set.of(10L, 20L), Set.of(200L)), ArticleCursor.START, 10, 10))).containsExactly(2L, 3L);
+
+        index.index(3L, 10L, List.of(100L), NOW.minusHours(2));
+        index.remove(1L);
+        ArticleFacetIndex.Result updated = index.query(filter(null, null), ArticleCursor.START, 10, 1);
+        assertThat(updated.categories()).containsExactly(new ArticleFacetIndex.FacetCount(10L, 2));
+        assertThat(updated.authors()).containsExactly(new ArticleFacetIndex.FacetCount(100L, 2));
+    }
+
+    @Test
+    void dateBoundsAreExclusiveAndExactInsideTheDay() {
+        index.index(1L, null, List.of(), NOW.minusDays(3));
+        index.index(2L, null, List.of(), NOW.minusDays(1).withHour(8));
+        index.index(3L, null, List.of(), NOW.minusDays(1).withHour(20));
+        index.index(4L, null, List.of(), NOW);
+
+        ArticleFacetIndex.Result between = index.query(new ArticleFacetIndex.Filter(null, null,
+                NOW.minusDays(1).withHour(8), NOW, null), ArticleCursor.START, 10, 10);
+        assertThat(ids(between)).containsExactly(3L);
+
+        ArticleFacetIndex.Result sameDay = index.query(new ArticleFacetIndex.Filter(null, null,
+                NOW.minusDays(1).withHour(7), NOW.minusDays(1).withHour(21), null), ArticleCursor.START, 10, 10);
+        assertThat(ids(sameDay)).containsExactly(3L, 2L);
+
+        ArticleFacetIndex.Result after = index.query(new ArticleFacetIndex.Filter(null, null,
+                NOW.minusDays(2), null, List.of(1L, 2L, 4L)), ArticleCursor.START, 10, 10);
+        assertThat(ids(after)).containsExactly(4L, 2L);
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomWrites() {
+        Random random = new Random(42);
+        Map<Long, Long> categories = new HashMap<>();
+        Map<Long, Set<Long>> authors = new HashMap<>();
+        Map<Long, LocalDateTime> dates = new HashMap<>();
+        for (int step = 0; step < 3000; step++) {
+            long id = 1 + random.nextInt(400);
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                categories.remove(id);
+                authors.remove(id);
+                dates.remove(id);
+                continue;
+            }
+            Long categoryId = random.nextInt(6) == 0 ? null : (long) random.nextInt(8);
+            Set<Long> authorIds = new HashSet<>();
+            for (int i = random.nextInt(3); i > 0; i--) {
+                authorIds.add((long) random.nextInt(12));
+            }
+            LocalDateTime createdAt = NOW.minusMinutes(random.nextInt(60 * 24 * 30));
+            index.index(id, categoryId, authorIds, createdAt);
+            categories.put(id, categoryId);
+            authors.put(id, authorIds);
+            dates.put(id, createdAt);
+        }
+
+        for (int round = 0; round < 200; round++) {
+            Set<Long> categoryIds = random.nextBoolean() ? null : new HashSet<>(List.of((long) random.nextInt(8), (long) random.nextInt(8)));
+            Set<Long> authorIds = random.nextBoolean() ? null : Set.of((long) random.nextInt(12));
+            LocalDateTime from = random.nextBoolean() ? null : NOW.minusMinutes(random.nextInt(60 * 24 * 30));
+            LocalDateTime to = random.nextBoolean() ? null : NOW.minusMinutes(random.nextInt(60 * 24 * 30));
+
+            List<ArticleCursor> expected = new ArrayList<>();
+            Map<Long, Integer> expectedCategories = new HashMap<>();
+            for (Long id : dates.keySet()) {
+                LocalDateTime createdAt = dates.get(id);
+                if ((from != null && !createdAt.isAfter(from)) || (to != null && !createdAt.isBefore(to))) {
+                    continue;
+                }
+                boolean inCategory = categoryIds == null || (categories.get(id) != null && categoryIds.contains(categories.get(id)));
+                boolean byAuthor = authorIds == null || authors.get(id).stream().anyMatch(authorIds::contains);
+                if (byAuthor && categories.get(id) != null) {
+                    expectedCategories.merge(categories.get(id), 1, Integer::sum);
+                }
+                if (inCategory && byAuthor) {
+                    expected.add(new ArticleCursor(createdAt, id));
+                }
+            }
+            expected.sort(Comparator.comparing(ArticleCursor::createdAt).thenComparing(ArticleCursor::id).reversed());
+
+            ArticleFacetIndex.Filter filter = new ArticleFacetIndex.Filter(categoryIds, authorIds, from, to, null);
+            List<ArticleCursor> pages = new ArrayList<>();
+            ArticleCursor position = ArticleCursor.START;
+            ArticleFacetIndex.Result result;
+            do {
+                result = index.query(filter, position, 25, 100);
+                assertThat(result.total()).isEqualTo(expected.size());
+                pages.addAll(result.page());
+                position = result.page().isEmpty() ? position : result.page().get(result.page().size() - 1);
+            } while (result.page().size() == 25);
+            assertThat(pages).isEqualTo(expected);
+
+            Map<Long, Integer> categoryCounts = new HashMap<>();
+            result.categories().forEach(count -> categoryCounts.put(count.id(), count.count()));
+            assertThat(categoryCounts).isEqualTo(expectedCategories);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.wild.myblog.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleSearchIndexTests {
+
+    private final ArticleSearchIndex index = new ArticleSearchIndex();
+
+    @Test
+    void matchesWithoutCaseNorAccents() {
+        index.index(1L, "Les élèves", "Une journée à l'école");
+
+        assertThat(index.search("ECOLE", 0, 10).articleIds()).containsExactly(1L);
+        assertThat(index.search("eleves journee", 0, 10).articleIds()).containsExactly(1L);
+        assertThat(index.search("le la les", 0, 10)).isEqualTo(SearchHits.EMPTY);
+    }
+
+    @Test
+    void ranksMoreRelevantArticlesFirst() {
+        index.index(1L, "Cuisine", "Une recette de tarte aux pommes");
+        index.index(2L, "Spring Boot", "Configurer Spring et Hibernate avec Spring Data");
+        index.index(3L, "Java", "Spring en une phrase");
+
+        SearchHits hits = index.search("spring hibernate", 0, 10);
+
+        assertThat(hits.totalHits()).isEqualTo(2);
+        assertThat(hits.articleIds()).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void paginatesRankedResults() {
+        for (long id = 1; id <= 25; id++) {
+            index.index(id, "Article " + id, "mot ".repeat((int) id));
+        }
+
+        List<Long> firstPage = index.search("mot", 0, 10).articleIds();
+        List<Long> thirdPage = index.search("mot", 20, 10).articleIds();
+
+        assertThat(firstPage).hasSize(10).doesNotContainAnyElementsOf(thirdPage);
+        assertThat(thirdPage).hasSize(5);
+        assertThat(index.search("mot", 0, 10).totalHits()).isEqualTo(25);
+
+        // Offset au-delà des résultats, jusqu'au débordement d'un int : page vide, total exact
+        SearchHits beyond = index.search("mot", Integer.MAX_VALUE - 5, 10);
+        assertThat(beyond.articleIds()).isEmpty();
+        assertThat(beyond.totalHits()).isEqualTo(25);
+    }
+
+    @Test
+    void reindexingAndRemovalReplaceThePreviousVersion() {
+        index.index(1L, "Ancien titre", "contenu obsolète");
+        index.index(1L, "Nouveau titre", "contenu à jour");
+        index.index(2L, "Autre", "contenu obsolète");
+        index.remove(2L);
+
+        assertThat(index.search("obsolete", 0, 10)).isEqualTo(SearchHits.EMPTY);
+        assertThat(index.search("nouveau", 0, 10).articleIds()).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void compactionKeepsLiveDocuments() {
+        for (int round = 0; round < 3; round++) {
+            for (long id = 1; id <= 1000; id++) {
+                index.index(id, "Titre " + round, "version" + round + " commun");
+            }
+        }
+
+        assertThat(index.search("commun", 0, 10).totalHits()).isEqualTo(1000);
+        assertThat(index.search("version2", 0, 10).totalHits()).isEqualTo(1000);
+        assertThat(index.search("version0", 0, 10)).isEqualTo(SearchHits.EMPTY);
+    }
+}
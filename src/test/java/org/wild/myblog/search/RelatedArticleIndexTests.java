@@ -0,0 +1,107 @@
+package org.wild.myblog.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelatedArticleIndexTests {
+
+    private final RelatedArticleIndex index = new RelatedArticleIndex(3, 4);
+
+    @AfterEach
+    void tearDown() {
+        index.destroy();
+    }
+
+    @Test
+    void ranksSharedContentCategoryAndAuthors() {
+        ArticleSearchIndex searchIndex = new ArticleSearchIndex();
+        ArticleFacetIndex facetIndex = new ArticleFacetIndex();
+        searchIndex.index(1L, "Spring Boot", "Configurer un cache Caffeine avec Spring Boot");
+        searchIndex.index(2L, "Cache Caffeine", "Configurer Caffeine dans Spring Boot");
+        searchIndex.index(3L, "Jardinage", "Planter des tomates au printemps");
+        searchIndex.index(4L, "Recettes", "Une tarte aux tomates");
+        searchIndex.index(5L, "Divers", "Rien de commun");
+        facetIndex.index(1L, 10L, List.of(100L), LocalDateTime.now());
+        facetIndex.index(2L, 10L, List.of(100L), LocalDateTime.now());
+        facetIndex.index(3L, 20L, List.of(200L), LocalDateTime.now());
+        facetIndex.index(4L, 30L, List.of(100L), LocalDateTime.now());
+        facetIndex.index(5L, null, List.of(), LocalDateTime.now());
+
+        index.rebuild(RelatedArticleIndex.Corpus.of(searchIndex.termVectors(), facetIndex.keys()));
+
+        assertThat(index.related(1L, 3)).containsExactly(2L, 4L);
+        assertThat(index.related(3L, 3)).containsExactly(4L);
+        assertThat(index.related(5L, 3)).isEmpty();
+        assertThat(index.related(1L, 1)).containsExactly(2L);
+        assertThat(index.related(42L, 3)).isNull();
+    }
+
+    @Test
+    void incrementalUpdatesMatchAFullRebuild() {
+        Random random = new Random(7);
+        Map<Long, ArticleSearchIndex.TermVector> vectors = new HashMap<>();
+        Map<Long, ArticleFacetIndex.Keys> keys = new HashMap<>();
+        for (long id = 1; id <= 300; id++) {
+            put(random, vectors, keys, id);
+        }
+        index.rebuild(RelatedArticleIndex.Corpus.of(vectors, keys));
+
+        RelatedArticleIndex reference = new RelatedArticleIndex(3, 1);
+        try {
+            for (int round = 0; round < 20; round++) {
+                Set<Long> changed = new HashSet<>();
+                for (int i = 0; i < 1 + random.nextInt(10); i++) {
+                    long id = 1 + random.nextInt(350);
+                    changed.add(id);
+                    if (random.nextInt(4) == 0) {
+                        vectors.remove(id);
+                        keys.remove(id);
+                    } else {
+                        put(random, vectors, keys, id);
+                    }
+                }
+                RelatedArticleIndex.Corpus corpus = RelatedArticleIndex.Corpus.of(vectors, keys);
+                index.update(corpus, changed);
+                reference.rebuild(corpus);
+
+                assertThat(index.size()).isEqualTo(keys.size());
+                for (Long id : keys.keySet()) {
+                    assertThat(index.related(id, 3)).as("article %d", id).isEqualTo(reference.related(id, 3));
+                }
+            }
+        } finally {
+            reference.destroy();
+        }
+    }
+
+    // Vecteur de norme 1 sur un petit vocabulaire, pour que beaucoup de paires se ressemblent
+    private static void put(Random random, Map<Long, ArticleSearchIndex.TermVector> vectors, Map<Long, ArticleFacetIndex.Keys> keys, long id) {
+        int[] termIds = random.ints(0, 40).distinct().limit(1 + random.nextInt(6)).sorted().toArray();
+        float[] weights = new float[termIds.length];
+        float norm = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 1 + random.nextInt(5);
+            norm += weights[i] * weights[i];
+        }
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] /= (float) Math.sqrt(norm);
+        }
+        vectors.put(id, new ArticleSearchIndex.TermVector(termIds, weights));
+
+        Set<Long> authorIds = new HashSet<>();
+        for (int i = random.nextInt(3); i > 0; i--) {
+            authorIds.add((long) random.nextInt(15));
+        }
+        keys.put(id, new ArticleFacetIndex.Keys(random.nextInt(5) == 0 ? null : (long) random.nextInt(6), authorIds));
+    }
+}
@@ -0,0 +1,95 @@
+package org.wild.myblog.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestIndexTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final SuggestIndex index = new SuggestIndex(3);
+
+    private List<String> labels(String prefix) {
+        return index.suggest(prefix, 10).stream().map(SuggestIndex.Suggestion::label).toList();
+    }
+
+    @Test
+    void matchesWordStartsWithoutCaseNorAccents() {
+        index.indexArticle(1L, "Découvrir Spring Boot", NOW, List.of());
+        index.indexArticle(2L, "L'été en Java", NOW.minusDays(1), List.of());
+
+        assertThat(labels("decou")).containsExactly("Découvrir Spring Boot");
+        assertThat(labels("SPRING b")).containsExactly("Découvrir Spring Boot");
+        assertThat(labels("ete")).containsExactly("L'été en Java");
+        assertThat(labels("boot spring")).isEmpty();
+        assertThat(labels("  ")).isEmpty();
+    }
+
+    @Test
+    void keepsTheMostRecentFirstThroughUpdatesAndRemovals() {
+        for (long id = 1; id <= 5; id++) {
+            index.indexArticle(id, "Java " + id, NOW.plusDays(id), List.of());
+        }
+        assertThat(labels("java")).containsExactly("Java 5", "Java 4", "Java 3");
+
+        index.removeArticle(5L);
+        index.indexArticle(4L, "Kotlin 4", NOW.plusDays(4), List.of());
+        assertThat(labels("java")).containsExactly("Java 3", "Java 2", "Java 1");
+        assertThat(labels("kot")).containsExactly("Kotlin 4");
+    }
+
+    @Test
+    void ranksAuthorsByTheirLatestArticle() {
+        index.indexArticle(1L, "Ancien", NOW.minusYears(1), List.of(10L));
+        index.indexArticle(2L, "Récent", NOW, List.of(20L));
+        index.indexAuthor(10L, "Marie", "Martin");
+        index.indexAuthor(20L, "Marc", "Martinez");
+        assertThat(labels("mar")).containsExactly("Marc Martinez", "Marie Martin");
+
+        index.linkArticle(2L, List.of(10L));
+        assertThat(labels("martin")).containsExactly("Marie Martin", "Marc Martinez");
+
+        index.removeAuthor(10L);
+        assertThat(labels("mar")).containsExactly("Marc Martinez");
+    }
+
+    @Test
+    void agreesWithAFullScanAfterRandomWrites() {
+        SuggestIndex large = new SuggestIndex(5);
+        String[] words = {"java", "javascript", "jardin", "spring", "sprint", "boot", "bootstrap", "base", "bases"};
+        Map<Long, String> titles = new HashMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 2000; step++) {
+            long id = random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                large.removeArticle(id);
+                titles.remove(id);
+            } else {
+                String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                large.indexArticle(id, title, NOW.plusMinutes(id), List.of());
+                titles.put(id, title);
+            }
+        }
+
+        for (String prefix : List.of("j", "ja", "java", "javas", "s", "sprin", "b", "boot", "bases", "java j", "x")) {
+            List<Long> expected = new ArrayList<>();
+            titles.entrySet().stream()
+                    .filter(entry -> entry.getValue().startsWith(prefix) || entry.getValue().contains(" " + prefix))
+                    .map(Map.Entry::getKey)
+                    .sorted(Comparator.reverseOrder())
+                    .limit(5)
+                    .forEach(expected::add);
+            assertThat(large.suggest(prefix, 5).stream().map(SuggestIndex.Suggestion::id).toList())
+                    .as(prefix).isEqualTo(expected);
+        }
+    }
+}
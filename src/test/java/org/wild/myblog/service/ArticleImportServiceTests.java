@@ -0,0 +1,173 @@
+package org.wild.myblog.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.wild.myblog.config.IdSequenceAligner;
+import org.wild.myblog.dto.BulkImportErrorDTO;
+import org.wild.myblog.dto.BulkImportResultDTO;
+import org.wild.myblog.model.Article;
+import org.wild.myblog.model.Author;
+import org.wild.myblog.model.Category;
+import org.wild.myblog.model.Image;
+import org.wild.myblog.repository.ArticleRepository;
+import org.wild.myblog.repository.AuthorRepository;
+import org.wild.myblog.repository.CategoryRepository;
+import org.wild.myblog.repository.ImageRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Appels directs au service, hors requête HTTP : pas d'EntityManager ouvert par open-in-view
+@SpringBootTest
+@DirtiesContext
+class ArticleImportServiceTests {
+
+    @Autowired
+    private ArticleImportService articleImportService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdSequenceAligner idSequenceAligner;
+
+    private BulkImportResultDTO importArticles(String input) throws IOException {
+        return articleImportService.importArticles(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<String> titlesStartingWith(String prefix) {
+        return articleRepository.findAll().stream().map(Article::getTitle).filter(title -> title.startsWith(prefix)).sorted().toList();
+    }
+
+    @Test
+    void invalidArticlesAreReportedWithTheirPositionAndReason() throws Exception {
+        Category category = new Category();
+        category.setName("Import");
+        category = categoryRepository.save(category);
+        Author author = new Author();
+        author.setFirstname("Prénom");
+        author.setLastname("Nom");
+        author = authorRepository.save(author);
+        Image image = new Image();
+        image.setUrl("https://example.org/import.png");
+        image = imageRepository.save(image);
+
+        String authorLink = "{\"author\":{\"id\":" + author.getId() + "},\"contribution\":\"Rédaction\"}";
+        BulkImportResultDTO result = importArticles("[" + String.join(",",
+                "{\"title\":\"Valide 1\",\"content\":\"...\"}",
+                "{\"content\":\"sans titre\"}",
+                "{\"title\":\"Catégorie inconnue\",\"category\":{\"id\":999999}}",
+                "42",
+                "{\"title\":\"Valide 2\",\"category\":{\"id\":" + category.getId() + "},\"images\":[{\"id\":" + image.getId() + "},"
+                        + "{\"url\":\"https://example.org/nouvelle.png\"}],\"articleAuthors\":[" + authorLink + "]}",
+                "{\"title\":\"Image inconnue\",\"images\":[{\"id\":999999}]}",
+                "{\"title\":\"Auteur en double\",\"articleAuthors\":[" + authorLink + "," + authorLink + "]}",
+                "{\"title\":\"" + "x".repeat(51) + "\"}") + "]");
+
+        assertThat(result.getReceived()).isEqualTo(8);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(BulkImportErrorDTO::getIndex, BulkImportErrorDTO::getMessage).containsExactly(
+                tuple(1, "title is required"),
+                tuple(2, "unknown category 999999"),
+                tuple(3, "Invalid article: expected a JSON object"),
+                tuple(5, "unknown image 999999"),
+                tuple(6, "author " + author.getId() + " is listed twice"),
+                tuple(7, "title exceeds 50 characters"));
+        assertThat(titlesStartingWith("Valide")).containsExactly("Valide 1", "Valide 2");
+
+        // Références chargées et liées dans la transaction d'écriture, sans open-in-view
+        Article imported = articleRepository.findAll().stream().filter(article -> article.getTitle().equals("Valide 2")).findFirst().orElseThrow();
+        assertThat(jdbcTemplate.queryForObject("select category_id from article where id = ?", Long.class, imported.getId()))
+                .isEqualTo(category.getId());
+        assertThat(jdbcTemplate.queryForList("select image_id from article_image where article_id = ?", Long.class, imported.getId()))
+                .hasSize(2).contains(image.getId());
+        assertThat(jdbcTemplate.queryForList("select author_id from article_author where article_id = ?", Long.class, imported.getId()))
+                .containsExactly(author.getId());
+    }
+
+    @Test
+    void aChunkRejectedByTheDatabaseIsReplayedOneArticleAtATime() throws Exception {
+        long imagesBefore = imageRepository.count();
+        // L'URL dépasse la colonne : seule la base peut refuser cet article, et avec lui toute sa tranche
+        BulkImportResultDTO result = importArticles("[" + String.join(",",
+                "{\"title\":\"Rejeu avant\"}",
+                "{\"title\":\"Rejeu refusé\",\"images\":[{\"url\":\"https://example.org/" + "x".repeat(300) + ".png\"}]}",
+                "{\"title\":\"Rejeu après\",\"images\":[{\"url\":\"https://example.org/rejeu.png\"}]}") + "]");
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getIndex()).isEqualTo(1);
+            assertThat(error.getMessage()).startsWith("Rejected by the database: ");
+        });
+        assertThat(titlesStartingWith("Rejeu")).containsExactly("Rejeu après", "Rejeu avant");
+        // La nouvelle image de l'article accepté est insérée une seule fois, celle de l'article refusé pas du tout
+        assertThat(imageRepository.count()).isEqualTo(imagesBefore + 1);
+    }
+
+    @Test
+    void ndjsonIsImportedUntilTheFirstMalformedLine() throws Exception {
+        BulkImportResultDTO result = importArticles("""
+                {"title": "NDJSON 1"}
+                {"title": "NDJSON 2", "content": "..."}
+                {"content": "sans titre"}
+                {"title": "NDJSON 3"
+                {"title": "NDJSON 4"}
+                """);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(BulkImportErrorDTO::getIndex).containsExactly(2, 3);
+        assertThat(result.getErrors().get(1).getMessage()).startsWith("Malformed JSON, import stopped");
+        assertThat(titlesStartingWith("NDJSON")).containsExactly("NDJSON 1", "NDJSON 2");
+    }
+
+    @Test
+    void importAfterLegacyRowsDoesNotReuseTheirIds() throws Exception {
+        // Lignes insérées du temps des ids AUTO_INCREMENT, devant la séquence : ses prochains blocs les recouvrent
+        long next = jdbcTemplate.queryForObject("select next value for article_seq", Long.class);
+        List<Long> legacyIds = IntStream.range(0, 3 * Article.ID_ALLOCATION_SIZE).mapToObj(i -> next + i).map(Long::valueOf).toList();
+        LocalDateTime createdAt = LocalDateTime.now().minusYears(1);
+        for (Long id : legacyIds) {
+            jdbcTemplate.update("insert into article (id, title, created_at, updated_at) values (?, ?, ?, ?)",
+                    id, "Ancien " + id, createdAt, createdAt);
+        }
+        idSequenceAligner.afterSingletonsInstantiated();
+        // Le prochain bloc de l'optimiseur pooled commence après la dernière ligne existante
+        long maxLegacyId = legacyIds.get(legacyIds.size() - 1);
+        assertThat(jdbcTemplate.queryForObject("select next value for article_seq", Long.class))
+                .isGreaterThanOrEqualTo(maxLegacyId + Article.ID_ALLOCATION_SIZE);
+
+        int count = 4 * Article.ID_ALLOCATION_SIZE;
+        BulkImportResultDTO result = importArticles(IntStream.range(0, count)
+                .mapToObj(i -> "{\"title\":\"Après alignement " + i + "\"}")
+                .collect(Collectors.joining(",", "[", "]")));
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getImported()).isEqualTo(count);
+        assertThat(titlesStartingWith("Ancien")).hasSize(legacyIds.size());
+        assertThat(titlesStartingWith("Après alignement")).hasSize(count);
+    }
+}
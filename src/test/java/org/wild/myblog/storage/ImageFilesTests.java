@@ -0,0 +1,155 @@
+package org.wild.myblog.storage;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.wild.myblog.jdbc.QueryCountResultMatchers.queries;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class ImageFilesTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void uploadedImageIsStoredOnceAndServedWithRanges() throws Exception {
+        // Contenu différent à chaque exécution : le dossier de test survit d'une exécution à l'autre
+        byte[] png = new byte[200_000];
+        ThreadLocalRandom.current().nextBytes(png);
+
+        MvcResult created = mockMvc.perform(post("/images/files").contentType(MediaType.IMAGE_PNG).content(png))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.contentType").value("image/png"))
+                .andExpect(jsonPath("$.contentLength").value(png.length))
+                .andReturn();
+        String url = JsonPath.read(created.getResponse().getContentAsString(), "$.url");
+        Integer id = JsonPath.read(created.getResponse().getContentAsString(), "$.id");
+        assertThat(url).matches("/images/files/[0-9a-f]{64}\\.png");
+
+        // Même contenu : l'image existante est renvoyée
+        mockMvc.perform(post("/images/files").contentType(MediaType.IMAGE_PNG).content(png))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id));
+
+        String etag = "\"" + url.substring(url.lastIndexOf('/') + 1, url.lastIndexOf('.')) + "\"";
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(queries().exactly(0))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(content().bytes(png));
+
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/" + png.length))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(content().bytes(Arrays.copyOfRange(png, 100, 200)));
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(png, png.length - 10, png.length)));
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=" + png.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + png.length));
+        // If-Range d'une autre version : fichier entier
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, "\"autre\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(png));
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // Le type servi est celui enregistré à l'envoi : pas d'autre extension pour le même contenu
+        String withoutExtension = url.substring(0, url.lastIndexOf('.') + 1);
+        for (String extension : List.of("html", "svg", "jpg")) {
+            mockMvc.perform(get(withoutExtension + extension)).andExpect(status().isNotFound());
+        }
+    }
+
+    @Test
+    void concurrentUploadsOfTheSameContentCreateASingleImage() throws Exception {
+        byte[] png = new byte[5000];
+        ThreadLocalRandom.current().nextBytes(png);
+
+        List<Callable<MvcResult>> uploads = IntStream.range(0, 8).<Callable<MvcResult>>mapToObj(i -> () ->
+                mockMvc.perform(post("/images/files").contentType(MediaType.IMAGE_PNG).content(png)).andReturn()).toList();
+        List<MvcResult> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(uploads.size())) {
+            for (Future<MvcResult> result : executor.invokeAll(uploads)) {
+                results.add(result.get());
+            }
+        }
+
+        // Une seule création, les autres envois renvoient la même image
+        assertThat(results).filteredOn(result -> result.getResponse().getStatus() == 201).hasSize(1);
+        assertThat(results).allSatisfy(result -> assertThat(result.getResponse().getStatus()).isIn(200, 201));
+        assertThat(results.stream().map(ImageFilesTests::readId).distinct()).hasSize(1);
+    }
+
+    private static Integer readId(MvcResult result) {
+        try {
+            return JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void imagesCreatedWithAnArticleCannotClaimAStoredContent() throws Exception {
+        byte[] png = new byte[1000];
+        ThreadLocalRandom.current().nextBytes(png);
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png));
+
+        mockMvc.perform(post("/articles").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"title": "Image forgée", "content": "...", "images": [{"url": "https://example.org/x.png",
+                         "contentHash": "%s", "contentType": "image/png", "contentLength": 1000}]}""".formatted(hash)))
+                .andExpect(status().isCreated());
+
+        // Le vrai envoi ne retrouve pas l'image créée avec l'article
+        mockMvc.perform(post("/images/files").contentType(MediaType.IMAGE_PNG).content(png))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.url").value("/images/files/" + hash + ".png"));
+    }
+
+    @Test
+    void unsupportedOrUnknownFilesAreRejected() throws Exception {
+        mockMvc.perform(post("/images/files").contentType("image/svg+xml").content("<svg/>".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isUnsupportedMediaType());
+        mockMvc.perform(post("/images/files").contentType(MediaType.IMAGE_JPEG).content(new byte[0]))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/images/files/" + HexFormat.of().formatHex(new byte[32]) + ".png"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,93 @@
+package org.wild.myblog.views;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wild.myblog.model.Article;
+import org.wild.myblog.repository.ArticleRepository;
+import org.wild.myblog.repository.ArticleViewCountRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.wild.myblog.jdbc.QueryCountResultMatchers.queries;
+
+// Pas d'écriture planifiée pendant le test : les compteurs ne sont écrits que par les appels à flush()
+@SpringBootTest(properties = {
+        "blog.article-views.flush-interval=PT1H",
+        "blog.article-views.flush-threshold=1000000"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class ArticleViewCounterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ArticleViewCountRepository articleViewCountRepository;
+
+    @Autowired
+    private ArticleViewCounter articleViewCounter;
+
+    private Article save(String title) {
+        Article article = new Article();
+        article.setTitle(title);
+        article.setContent("Contenu de " + title);
+        article.setCreatedAt(LocalDateTime.now());
+        article.setUpdatedAt(LocalDateTime.now());
+        return articleRepository.save(article);
+    }
+
+    private void view(Article article, int times) throws Exception {
+        for (int i = 0; i < times; i++) {
+            mockMvc.perform(get("/articles/" + article.getId())).andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void viewsAreWrittenInBatchesAndServedFromMemory() throws Exception {
+        Article popular = save("Populaire");
+        Article other = save("Autre");
+        view(popular, 3);
+        view(other, 1);
+        // Revalidation : pas une lecture
+        String etag = mockMvc.perform(get("/articles/" + popular.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/articles/" + popular.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/articles/999999")).andExpect(status().isNotFound());
+
+        assertThat(articleViewCountRepository.count()).isZero();
+        articleViewCounter.flush();
+
+        mockMvc.perform(get("/articles/most-viewed"))
+                .andExpect(status().isOk())
+                .andExpect(queries().exactly(0))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].article.title").value("Populaire"))
+                .andExpect(jsonPath("$[0].views").value(4))
+                .andExpect(jsonPath("$[1].views").value(1));
+
+        // Deuxième écriture : les lectures s'ajoutent à la ligne existante
+        view(other, 4);
+        articleViewCounter.flush();
+
+        assertThat(articleViewCountRepository.findById(other.getId())).get()
+                .extracting(count -> count.getViews()).isEqualTo(5L);
+        mockMvc.perform(get("/articles/most-viewed?size=1"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].article.title").value("Autre"))
+                .andExpect(jsonPath("$[0].views").value(5));
+    }
+}